@@ -0,0 +1,59 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.enums.RoleNameEnum;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.Money;
+import lombok.experimental.UtilityClass;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Общие данные бенчмарков: роль пользователя, владелец карт и активные карты с балансом, которого хватает на весь прогон.
+ */
+@UtilityClass
+public class BenchmarkFixtures {
+
+    private static final Money BALANCE = Money.parse("1000000.00");
+
+    /**
+     * Сохраняет владельца карт с ролью ROLE_USER, создавая роль при необходимости.
+     * @param roleRepository репозиторий ролей
+     * @param userRepository репозиторий пользователей
+     * @param login логин
+     * @return сохраненный пользователь
+     */
+    public static User owner(RoleRepository roleRepository, UserRepository userRepository, String login) {
+        Role role = roleRepository.findByName(RoleNameEnum.ROLE_USER).orElseGet(() -> {
+            Role userRole = new Role();
+            userRole.setName(RoleNameEnum.ROLE_USER);
+            return roleRepository.save(userRole);
+        });
+        return userRepository.save(User.builder()
+                .login(login)
+                .passwordHash("not-used")
+                .roles(Set.of(role))
+                .build());
+    }
+
+    /**
+     * Создает активную карту со сроком действия три года, не сохраняя ее.
+     * @param number номер карты
+     * @param owner владелец
+     * @return карта
+     */
+    public static Card card(String number, User owner) {
+        return Card.builder()
+                .number(number)
+                .status(CardStatusEnum.ACTIVE)
+                .balance(BALANCE)
+                .expirationDate(YearMonth.now().plusYears(3))
+                .owner(owner)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.util.CardUtil;
+import com.example.bankcards.util.Money;
+import com.example.bankcards.util.YearMonthConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк преобразований карты: маппинг в DTO, маскировка номера и конвертер срока действия.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBenchmark {
+
+    private final CardMapper cardMapper = new CardMapper();
+    private final YearMonthConverter yearMonthConverter = new YearMonthConverter();
+
+    private CardView card;
+    private String number;
+    private YearMonth expirationDate;
+    private Integer expirationColumn;
+
+    @Setup
+    public void setUp() {
+        card = new CardView("1234567890123456", YearMonth.of(2030, 12), CardStatusEnum.ACTIVE,
+                Money.parse("1500.75"), UUID.randomUUID());
+        number = card.number();
+        expirationDate = card.expirationDate();
+        expirationColumn = yearMonthConverter.convertToDatabaseColumn(expirationDate);
+    }
+
+    @Benchmark
+    public CardResponse cardMapperToResponse() {
+        return cardMapper.toResponse(card);
+    }
+
+    @Benchmark
+    public String maskCardNumber() {
+        return CardUtil.maskCardNumber(number);
+    }
+
+    @Benchmark
+    public Integer yearMonthToDatabaseColumn() {
+        return yearMonthConverter.convertToDatabaseColumn(expirationDate);
+    }
+
+    @Benchmark
+    public YearMonth yearMonthToEntityAttribute() {
+        return yearMonthConverter.convertToEntityAttribute(expirationColumn);
+    }
+}
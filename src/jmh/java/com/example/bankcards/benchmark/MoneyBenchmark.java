@@ -0,0 +1,57 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк арифметики перевода: {@link Money} на long против {@link BigDecimal}.
+ * Каждая операция проверяет достаточность средств, списывает и зачисляет сумму.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private Money moneyFrom;
+    private Money moneyTo;
+    private Money moneyAmount;
+    private BigDecimal decimalFrom;
+    private BigDecimal decimalTo;
+    private BigDecimal decimalAmount;
+
+    @Setup
+    public void setUp() {
+        moneyFrom = Money.parse("1000000.00");
+        moneyTo = Money.parse("250.40");
+        moneyAmount = Money.parse("10.55");
+        decimalFrom = moneyFrom.toBigDecimal();
+        decimalTo = moneyTo.toBigDecimal();
+        decimalAmount = moneyAmount.toBigDecimal();
+    }
+
+    @Benchmark
+    public Money money() {
+        if (moneyFrom.isLessThan(moneyAmount)) {
+            throw new IllegalStateException();
+        }
+        Money from = moneyFrom.minus(moneyAmount);
+        Money to = moneyTo.plus(moneyAmount);
+        return from.plus(to);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        if (decimalFrom.compareTo(decimalAmount) < 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal from = decimalFrom.subtract(decimalAmount);
+        BigDecimal to = decimalTo.add(decimalAmount);
+        return from.add(to);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.BankRestApplication;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.exception.custom.CardNotFoundException;
+import com.example.bankcards.exception.custom.TransferException;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Бенчмарк одного перевода на встроенной базе H2 в режиме PostgreSQL: прежний путь {@code TransferServiceImpl}
+ * (SELECT ... FOR UPDATE обеих карт с жадной загрузкой владельца и ролей, проверки на сущностях и UPDATE при сбросе)
+ * в сравнении с текущим (два условных UPDATE без загрузки сущностей).
+ * <p>
+ * Оба пути выполняются в одной транзакции {@link TransactionTemplate} и пишут запись в журнал transfers
+ * через {@link TransferRepository}, лимиты, кэш и повторы сервиса не участвуют, поэтому разница —
+ * только в чтении и записи карт.
+ * Задержка сети до PostgreSQL не моделируется: на реальной базе разница в числе обращений к ней заметнее.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferPathBenchmark {
+
+    private static final String FIRST_NUMBER = "4300000000000001";
+    private static final String SECOND_NUMBER = "4300000000000002";
+
+    private ConfigurableApplicationContext context;
+    private CardRepository cardRepository;
+    private TransferRepository transferRepository;
+    private TransferMapper transferMapper;
+    private TransactionTemplate transactionTemplate;
+    private TransferRequest forward;
+    private TransferRequest backward;
+    private boolean even;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankRestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        "spring.datasource.url", "jdbc:h2:mem:transfer-path;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username", "sa",
+                        "spring.datasource.driver-class-name", "org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto", "create-drop",
+                        "spring.liquibase.enabled", "false",
+                        "logging.level.root", "WARN",
+                        "jwt.secret", "YmVuY2htYXJrLXNlY3JldC1rZXktZm9yLWp3dC1zaWduaW5nLTAxMjM0NTY3ODk=",
+                        "jwt.expiration", "3600000",
+                        "cors.allowed-origins", "http://localhost"))
+                .run();
+        cardRepository = context.getBean(CardRepository.class);
+        transferRepository = context.getBean(TransferRepository.class);
+        transferMapper = context.getBean(TransferMapper.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.executeWithoutResult(status -> seedCards());
+
+        forward = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1.00"));
+        backward = new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("1.00"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void loadAndSaveEntities() {
+        TransferRequest request = next();
+        transactionTemplate.executeWithoutResult(status -> transferWithEntities(request));
+    }
+
+    @Benchmark
+    public void conditionalUpdates() {
+        TransferRequest request = next();
+        transactionTemplate.executeWithoutResult(status -> transferWithUpdates(request));
+    }
+
+    /**
+     * Чередует направление перевода, чтобы балансы не расходились между вызовами.
+     */
+    private TransferRequest next() {
+        even = !even;
+        return even ? forward : backward;
+    }
+
+    /**
+     * Прежний перевод {@code TransferServiceImpl}: блокирует и загружает обе карты, проверяет их
+     * и изменяет балансы сущностей, которые Hibernate записывает при фиксации.
+     */
+    private void transferWithEntities(TransferRequest request) {
+        Map<String, Card> cards = cardRepository
+                .findAllByNumberForUpdate(List.of(request.numberFrom(), request.numberTo())).stream()
+                .collect(Collectors.toMap(Card::getNumber, Function.identity()));
+        Card fromCard = cards.get(request.numberFrom());
+        Card toCard = cards.get(request.numberTo());
+        if (fromCard == null || toCard == null) {
+            throw new CardNotFoundException("Card not found");
+        }
+        if (!fromCard.getOwner().getUserId().equals(toCard.getOwner().getUserId())) {
+            throw new TransferException("Cards must belong to the same user");
+        }
+        if (fromCard.getStatus() != CardStatusEnum.ACTIVE || toCard.getStatus() != CardStatusEnum.ACTIVE) {
+            throw new TransferException("Card is not active");
+        }
+        if (fromCard.getBalance().isLessThan(request.amount())) {
+            throw new TransferException("Insufficient funds on source card");
+        }
+        fromCard.setBalance(fromCard.getBalance().minus(request.amount()));
+        toCard.setBalance(toCard.getBalance().plus(request.amount()));
+        transferRepository.save(transferMapper.toEntity(request));
+    }
+
+    /**
+     * Текущий перевод {@code TransferServiceImpl}: условные UPDATE обеих карт в порядке номеров без загрузки сущностей.
+     */
+    private void transferWithUpdates(TransferRequest request) {
+        YearMonth month = YearMonth.now();
+        if (request.numberFrom().compareTo(request.numberTo()) <= 0) {
+            debit(request, month);
+            credit(request, month);
+        } else {
+            credit(request, month);
+            debit(request, month);
+        }
+        transferRepository.save(transferMapper.toEntity(request));
+    }
+
+    private void debit(TransferRequest request, YearMonth month) {
+        if (cardRepository.debit(request.numberFrom(), request.numberTo(), request.amount(), month) == 0) {
+            throw new TransferException("Transfer rejected");
+        }
+    }
+
+    private void credit(TransferRequest request, YearMonth month) {
+        if (cardRepository.credit(request.numberTo(), request.numberFrom(), request.amount(), month) == 0) {
+            throw new TransferException("Transfer rejected");
+        }
+    }
+
+    private void seedCards() {
+        User owner = BenchmarkFixtures.owner(
+                context.getBean(RoleRepository.class), context.getBean(UserRepository.class), "benchmark-user");
+        cardRepository.saveAll(List.of(
+                BenchmarkFixtures.card(FIRST_NUMBER, owner), BenchmarkFixtures.card(SECOND_NUMBER, owner)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.CardCacheProperties;
+import com.example.bankcards.config.TransferLimitProperties;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransferResultResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.CardExpiryService;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.TransferService;
+import com.example.bankcards.service.impl.CardCacheServiceImpl;
+import com.example.bankcards.service.impl.TransferLimitServiceImpl;
+import com.example.bankcards.service.impl.TransferServiceImpl;
+import com.example.bankcards.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк проверок и арифметики {@link TransferServiceImpl} без базы данных.
+ * Репозитории заменены заглушками, поэтому измеряется только работа сервиса.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferServiceBenchmark {
+
+    private static final String FIRST_NUMBER = "1234567890123456";
+    private static final String SECOND_NUMBER = "6543210987654321";
+
+    @Param({"false", "true"})
+    private boolean limitsEnabled;
+
+    private TransferService transferService;
+    private TransferRequest request;
+    private List<TransferRequest> batch;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().userId(UUID.randomUUID()).build();
+        List<Card> cards = List.of(BenchmarkFixtures.card(FIRST_NUMBER, owner), BenchmarkFixtures.card(SECOND_NUMBER, owner));
+
+        TransferLimitProperties.Limit limit = new TransferLimitProperties.Limit();
+        limit.setHourly(new BigDecimal("1000000000000.00"));
+        limit.setDaily(new BigDecimal("1000000000000.00"));
+        TransferLimitProperties limitProperties = new TransferLimitProperties();
+        limitProperties.setEnabled(limitsEnabled);
+        limitProperties.getStatuses().put(CardStatusEnum.ACTIVE, limit);
+
+        TransferRepository transferRepository = stub(TransferRepository.class, cards);
+        transferService = new TransferServiceImpl(
+                stub(CardRepository.class, cards),
+                transferRepository,
+                new TransferMapper(),
+                stub(IdempotencyService.class, cards),
+                new TransferLimitServiceImpl(transferRepository, stub(CardRepository.class, cards), limitProperties),
+                new CardCacheServiceImpl(stub(CardRepository.class, cards), new CardCacheProperties(), new SimpleMeterRegistry()),
+                stub(CardExpiryService.class, cards));
+
+        request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("10.50"));
+
+        // transfers go both ways, so balances do not drift between invocations
+        batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(i % 2 == 0
+                    ? new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1.25"))
+                    : new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("1.25")));
+        }
+    }
+
+    @Benchmark
+    public void transfer() {
+        transferService.transfer(request);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public List<TransferResultResponse> transferBatch() {
+        return transferService.transferBatch(batch);
+    }
+
+    /**
+     * Создает заглушку репозитория: условные UPDATE всегда изменяют строку,
+     * выборка для пакета возвращает заранее созданные карты, сохранение ничего не записывает.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repository, List<Card> cards) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "debit", "credit" -> 1;
+                    case "findAllByNumberForUpdate" -> cards;
+                    case "save" -> args[0];
+                    case "saveAll" -> List.of();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест HTTP API на встроенной базе H2 в режиме PostgreSQL.
+ * <p>
+ * Клиенты входят в систему и до истечения времени прогона выполняют смесь запросов:
+ * вход (5%), список карт (35%), баланс (35%) и перевод между своими картами (25%).
+ * По каждому эндпоинту выводятся пропускная способность и задержки p50/p99,
+ * отчет также сохраняется в target/load-test-result.json.
+ * Число пользователей, клиентов и длительность задаются свойствами loadtest.users, loadtest.clients и loadtest.duration.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("load-test")
+class BankApiLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final Money INITIAL_BALANCE = Money.parse("1000000.00");
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${loadtest.users}")
+    private int users;
+
+    @Value("${loadtest.clients}")
+    private int clients;
+
+    @Value("${loadtest.duration}")
+    private Duration duration;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void mixedWorkload() throws Exception {
+        // given
+        List<Account> accounts = new TransactionTemplate(transactionManager).execute(status -> seedAccounts());
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Account account = accounts.get(i % accounts.size());
+            futures.add(executor.submit(() -> {
+                runClient(account, deadline, recorder);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        executor.shutdown();
+
+        // then
+        List<LatencyRecorder.EndpointReport> report = recorder.report(elapsed);
+        log.info("Load test: {} clients, {} users, {} s", clients, users, elapsed.toSeconds());
+        log.info(String.format("%-22s %8s %6s %6s %10s %9s %9s %9s",
+                "endpoint", "requests", "4xx", "5xx", "req/s", "p50 ms", "p99 ms", "max ms"));
+        report.forEach(line -> log.info(line.toString()));
+        Files.writeString(Path.of("target", "load-test-result.json"), objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(Map.of("clients", clients, "users", users, "seconds", elapsed.toSeconds(), "endpoints", report)));
+
+        assertThat(report).allSatisfy(line -> assertThat(line.serverErrors()).isZero());
+        Money total = cardRepository.findAll().stream().map(Card::getBalance).reduce(Money.ZERO, Money::plus);
+        assertThat(total).isEqualTo(Money.ofMinor(INITIAL_BALANCE.minorUnits() * 2 * users));
+    }
+
+    /**
+     * Выполняет запросы одного клиента до истечения времени прогона.
+     * @param account пользователь и его карты
+     * @param deadline момент окончания прогона (System.nanoTime)
+     * @param recorder накопитель задержек
+     */
+    private void runClient(Account account, long deadline, LatencyRecorder recorder) throws Exception {
+        String token = login(account, recorder);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            int roll = random.nextInt(100);
+            if (roll < 5) {
+                token = login(account, recorder);
+            } else if (roll < 40) {
+                send("GET /api/cards", get("/api/cards?page=0&size=10", token), recorder);
+            } else if (roll < 75) {
+                String number = random.nextBoolean() ? account.firstCard() : account.secondCard();
+                send("GET balance", get("/api/cards/" + number + "/balance", token), recorder);
+            } else {
+                boolean forward = random.nextBoolean();
+                String body = objectMapper.writeValueAsString(Map.of(
+                        "numberFrom", forward ? account.firstCard() : account.secondCard(),
+                        "numberTo", forward ? account.secondCard() : account.firstCard(),
+                        "amount", "1.00"));
+                send("POST /api/transfers", post("/api/transfers", body, token), recorder);
+            }
+        }
+    }
+
+    /**
+     * Выполняет вход и возвращает jwt-токен.
+     * @param account пользователь
+     * @param recorder накопитель задержек
+     * @return jwt-токен
+     */
+    private String login(Account account, LatencyRecorder recorder) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("login", account.login(), "password", PASSWORD));
+        HttpResponse<String> response = send("POST /api/auth/login", post("/api/auth/login", body, null), recorder);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request, LatencyRecorder recorder) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(endpoint, System.nanoTime() - startedAt, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - startedAt, 0);
+            throw new IllegalStateException(endpoint + " failed", e);
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Создает пользователей с двумя активными картами каждый.
+     * @return созданные пользователи и их карты
+     */
+    private List<Account> seedAccounts() {
+        Role userRole = LoadTestFixtures.userRole(roleRepository);
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = LoadTestFixtures.user(userRepository, userRole, "load-user-" + i, passwordHash);
+            String firstCard = String.format("4000%012d", 2L * i);
+            String secondCard = String.format("4000%012d", 2L * i + 1);
+            cardRepository.saveAll(List.of(
+                    LoadTestFixtures.card(firstCard, user, INITIAL_BALANCE),
+                    LoadTestFixtures.card(secondCard, user, INITIAL_BALANCE)));
+            accounts.add(new Account("load-user-" + i, firstCard, secondCard));
+        }
+        return accounts;
+    }
+
+    /**
+     * Пользователь нагрузочного теста и две его карты.
+     * @param login логин
+     * @param firstCard номер первой карты
+     * @param secondCard номер второй карты
+     */
+    private record Account(String login, String firstCard, String secondCard) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bankcards.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Накопитель задержек и кодов ответа по эндпоинтам нагрузочного теста.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentSkipListMap<>();
+
+    /**
+     * Записывает результат одного запроса.
+     * @param endpoint название эндпоинта
+     * @param nanos задержка в наносекундах
+     * @param status http-статус ответа (0 — ошибка соединения)
+     */
+    public void record(String endpoint, long nanos, int status) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, status);
+    }
+
+    /**
+     * Формирует отчет по всем эндпоинтам.
+     * @param elapsed длительность прогона
+     * @return строки отчета по эндпоинтам
+     */
+    public List<EndpointReport> report(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return samples.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey(), seconds))
+                .toList();
+    }
+
+    /**
+     * Итог по одному эндпоинту.
+     * @param endpoint название эндпоинта
+     * @param requests число запросов
+     * @param clientErrors число ответов 4xx
+     * @param serverErrors число ответов 5xx и ошибок соединения
+     * @param throughput запросов в секунду
+     * @param p50Millis медиана задержки, мс
+     * @param p99Millis 99-й перцентиль задержки, мс
+     * @param maxMillis максимальная задержка, мс
+     */
+    public record EndpointReport(String endpoint, int requests, int clientErrors, int serverErrors,
+                                 double throughput, double p50Millis, double p99Millis, double maxMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("%-22s %8d %6d %6d %10.1f %9.2f %9.2f %9.2f",
+                    endpoint, requests, clientErrors, serverErrors, throughput, p50Millis, p99Millis, maxMillis);
+        }
+    }
+
+    /**
+     * Задержки одного эндпоинта.
+     */
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private int clientErrors;
+        private int serverErrors;
+
+        private synchronized void add(long latency, int status) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            if (status >= 400 && status < 500) {
+                clientErrors++;
+            } else if (status >= 500 || status == 0) {
+                serverErrors++;
+            }
+        }
+
+        private synchronized EndpointReport report(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new EndpointReport(endpoint, size, clientErrors, serverErrors, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), size == 0 ? 0 : sorted[size - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
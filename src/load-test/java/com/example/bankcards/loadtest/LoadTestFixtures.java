@@ -0,0 +1,67 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.enums.RoleNameEnum;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.Money;
+import lombok.experimental.UtilityClass;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Общие данные нагрузочных тестов: роль пользователя, пользователи и активные карты.
+ */
+@UtilityClass
+public class LoadTestFixtures {
+
+    /**
+     * Находит роль ROLE_USER или создает ее, если тесты делят базу и роль уже сохранена другим тестом.
+     * @param roleRepository репозиторий ролей
+     * @return роль пользователя
+     */
+    public static Role userRole(RoleRepository roleRepository) {
+        return roleRepository.findByName(RoleNameEnum.ROLE_USER).orElseGet(() -> {
+            Role role = new Role();
+            role.setName(RoleNameEnum.ROLE_USER);
+            return roleRepository.save(role);
+        });
+    }
+
+    /**
+     * Сохраняет пользователя с ролью ROLE_USER.
+     * @param userRepository репозиторий пользователей
+     * @param role роль пользователя
+     * @param login логин
+     * @param passwordHash хэш пароля
+     * @return сохраненный пользователь
+     */
+    public static User user(UserRepository userRepository, Role role, String login, String passwordHash) {
+        return userRepository.save(User.builder()
+                .login(login)
+                .passwordHash(passwordHash)
+                .roles(Set.of(role))
+                .build());
+    }
+
+    /**
+     * Создает активную карту со сроком действия три года, не сохраняя ее.
+     * @param number номер карты
+     * @param owner владелец
+     * @param balance начальный баланс
+     * @return карта
+     */
+    public static Card card(String number, User owner, Money balance) {
+        return Card.builder()
+                .number(number)
+                .expirationDate(YearMonth.now().plusYears(3))
+                .status(CardStatusEnum.ACTIVE)
+                .balance(balance)
+                .owner(owner)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.TransferService;
+import com.example.bankcards.util.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Встречные переводы по двум "горячим" картам на встроенной базе H2 в режиме PostgreSQL.
+ * <p>
+ * Потоки переводят по 1.00 в обе стороны через {@link TransferService} с настоящими транзакциями
+ * и блокировками строк, после чего проверяется, что суммы не потерялись и каждый перевод попал в журнал.
+ * Задержки переводов собирает {@link LatencyRecorder}, пропускная способность не должна опускаться
+ * ниже loadtest.min-transfer-throughput переводов в секунду.
+ * Тест использует отдельную базу, чтобы не влиять на итоговый баланс {@link BankApiLoadTest}.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transfer-concurrency;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("load-test")
+class TransferConcurrencyLoadTest {
+
+    private static final String FIRST_NUMBER = "4100000000000001";
+    private static final String SECOND_NUMBER = "4100000000000002";
+    private static final Money INITIAL_BALANCE = Money.parse("10000.00");
+    private static final int THREADS = 64;
+    private static final int TRANSFERS_PER_THREAD = 100;
+
+    @Value("${loadtest.min-transfer-throughput}")
+    private double minThroughput;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void transfer_ShouldConserveTotalBalance_WhenHotCardsAreTransferredConcurrentlyInBothDirections() throws Exception {
+        // given
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User owner = LoadTestFixtures.user(
+                    userRepository, LoadTestFixtures.userRole(roleRepository), "concurrency-user", "not-used");
+            cardRepository.saveAll(List.of(
+                    LoadTestFixtures.card(FIRST_NUMBER, owner, INITIAL_BALANCE),
+                    LoadTestFixtures.card(SECOND_NUMBER, owner, INITIAL_BALANCE)));
+        });
+
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long startedAt = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            TransferRequest request = i % 2 == 0
+                    ? new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1.00"))
+                    : new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("1.00"));
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < TRANSFERS_PER_THREAD; j++) {
+                    long started = System.nanoTime();
+                    transferService.transfer(request);
+                    recorder.record("transfer", System.nanoTime() - started, 200);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        executor.shutdown();
+
+        // then
+        LatencyRecorder.EndpointReport report = recorder.report(elapsed).get(0);
+        log.info("Hot-card transfers: {} threads, {} ms", THREADS, elapsed.toMillis());
+        log.info(String.format("%-22s %8s %6s %6s %10s %9s %9s %9s",
+                "endpoint", "requests", "4xx", "5xx", "req/s", "p50 ms", "p99 ms", "max ms"));
+        log.info(report.toString());
+        assertThat(report.throughput()).isGreaterThanOrEqualTo(minThroughput);
+
+        Card first = cardRepository.findByNumber(FIRST_NUMBER).orElseThrow();
+        Card second = cardRepository.findByNumber(SECOND_NUMBER).orElseThrow();
+        assertThat(first.getBalance()).isEqualTo(INITIAL_BALANCE);
+        assertThat(second.getBalance()).isEqualTo(INITIAL_BALANCE);
+        assertThat(transferRepository.findFirstPageByCard(FIRST_NUMBER, 2 * THREADS * TRANSFERS_PER_THREAD))
+                .hasSize(THREADS * TRANSFERS_PER_THREAD);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.custom.TransferException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.TransferService;
+import com.example.bankcards.util.Money;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Число SQL-операторов одного перевода по статистике Hibernate на встроенной базе H2 в режиме PostgreSQL.
+ * <p>
+ * Перевод не загружает карты, их владельцев и роли: успешный перевод — два условных UPDATE и запись в журнал,
+ * отклоненный — условный UPDATE и один запрос-проекция по обеим картам.
+ * Id журнала выдаются блоками по 50 из последовательности transfers_seq, поэтому успешные переводы
+ * считаются серией из 50 штук, в которой ровно одно обращение к последовательности.
+ * Тест использует отдельную базу, чтобы переводы других тестов не сдвигали выдачу id из последовательности.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transfer-statement-count;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("load-test")
+class TransferStatementCountLoadTest {
+
+    private static final String FIRST_NUMBER = "4200000000000001";
+    private static final String SECOND_NUMBER = "4200000000000002";
+    private static final Money INITIAL_BALANCE = Money.parse("100.00");
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        if (cardRepository.findByNumber(FIRST_NUMBER).isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> seedCards());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void transfer_ShouldPrepareThreeStatementsWithoutLoadingEntities() {
+        // given
+        // the first block of a fresh sequence costs two calls, so the measured series starts on the next block
+        transferSeries();
+        statistics.clear();
+
+        // when
+        transferSeries();
+
+        // then
+        // debit, credit and ledger insert per transfer, plus one transfers_seq call per allocation block
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3L * SEQUENCE_ALLOCATION_SIZE + 1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void transfer_ShouldReadBothCardsWithOneQuery_WhenTransferIsRejected() {
+        // when & then
+        assertThatThrownBy(() -> transferService.transfer(new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1000000.00"))))
+                .isInstanceOf(TransferException.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    /**
+     * Выполняет серию встречных переводов по 1.00, расходующую ровно один блок id журнала.
+     */
+    private void transferSeries() {
+        for (int i = 0; i < SEQUENCE_ALLOCATION_SIZE; i++) {
+            transferService.transfer(i % 2 == 0
+                    ? new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1.00"))
+                    : new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("1.00")));
+        }
+    }
+
+    /**
+     * Создает пользователя с ролью и двумя активными картами.
+     */
+    private void seedCards() {
+        User owner = LoadTestFixtures.user(
+                userRepository, LoadTestFixtures.userRole(roleRepository), "statement-count-user", "not-used");
+        cardRepository.saveAll(List.of(
+                LoadTestFixtures.card(FIRST_NUMBER, owner, INITIAL_BALANCE),
+                LoadTestFixtures.card(SECOND_NUMBER, owner, INITIAL_BALANCE)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.bankcards.aspect;
+
+import com.example.bankcards.config.StripedLockProperties;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.exception.custom.CardLockTimeoutException;
+import com.example.bankcards.util.StripedLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Сериализует переводы по одним и тем же картам внутри приложения.
+ * <p>
+ * Блокировки берутся до открытия транзакции, поэтому конкурирующие переводы ждут в памяти,
+ * не занимая соединения из пула на ожидание блокировки строк в базе данных.
+ * Время ожидания публикуется метрикой {@code transfer.card.lock.wait}.
+ * <p>
+ * Пакеты переводов полосы не захватывают: пакет может затронуть тысячи карт и занял бы большую часть полос,
+ * останавливая одиночные переводы по несвязанным картам. Строки карт пакета блокируются
+ * в базе данных ({@link com.example.bankcards.repository.CardRepository#findAllByNumberForUpdate}).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "transfer.lock.striped.enabled", havingValue = "true")
+public class CardLockAspect {
+
+    private final StripedLock stripedLock;
+    private final long timeoutNanos;
+    private final Timer acquiredTimer;
+    private final Timer timedOutTimer;
+
+    public CardLockAspect(StripedLockProperties properties, MeterRegistry meterRegistry) {
+        this.stripedLock = new StripedLock(properties.getStripes());
+        this.timeoutNanos = properties.getTimeout().toNanos();
+        this.acquiredTimer = lockWaitTimer(meterRegistry, "acquired");
+        this.timedOutTimer = lockWaitTimer(meterRegistry, "timeout");
+    }
+
+    /**
+     * Блокирует карты одиночного перевода на время его выполнения.
+     * @param joinPoint информация о вызываемом методе
+     * @return результат выполнения метода
+     * @throws Throwable если произошла ошибка
+     */
+    @Around("execution(* com.example.bankcards.service.TransferService.transfer(..))")
+    public Object lockTransfer(ProceedingJoinPoint joinPoint) throws Throwable {
+        TransferRequest request = (TransferRequest) joinPoint.getArgs()[0];
+        return proceedLocked(joinPoint, List.of(request.numberFrom(), request.numberTo()));
+    }
+
+    /**
+     * Захватывает полосы карт в порядке индексов, выполняет метод и освобождает полосы.
+     * @param joinPoint информация о вызываемом методе
+     * @param numbers номера карт
+     * @return результат выполнения метода
+     * @throws Throwable если произошла ошибка
+     */
+    private Object proceedLocked(ProceedingJoinPoint joinPoint, Collection<String> numbers) throws Throwable {
+        List<ReentrantLock> stripes = stripedLock.stripesFor(numbers);
+        List<ReentrantLock> acquired = new ArrayList<>(stripes.size());
+        long start = System.nanoTime();
+        try {
+            for (ReentrantLock stripe : stripes) {
+                long remaining = timeoutNanos - (System.nanoTime() - start);
+                if (!stripe.tryLock(remaining, TimeUnit.NANOSECONDS)) {
+                    timedOutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw new CardLockTimeoutException("Cards are busy with other transfers, please retry");
+                }
+                acquired.add(stripe);
+            }
+            acquiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            return joinPoint.proceed();
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Регистрирует таймер ожидания блокировки карт.
+     * @param meterRegistry реестр метрик
+     * @param outcome результат ожидания
+     * @return таймер
+     */
+    private static Timer lockWaitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("transfer.card.lock.wait")
+                .description("Time spent waiting for in-memory card locks before a transfer")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает метод сервиса, который повторяется при конфликте оптимистической блокировки.
+ * Число попыток и задержки задаются свойствами retry.conflict.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,76 @@
+package com.example.bankcards.aspect;
+
+import com.example.bankcards.config.RetryProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Повторяет методы с {@link RetryOnConflict} при конфликте оптимистической блокировки.
+ * <p>
+ * Аспект выполняется до открытия транзакции, поэтому каждая попытка идет в новой транзакции.
+ * Между попытками выдерживается случайная задержка (full jitter) с экспоненциально растущей верхней границей.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class RetryOnConflictAspect {
+
+    private final RetryProperties properties;
+
+    /**
+     * Выполняет метод, повторяя его при конфликте версий.
+     * @param joinPoint информация о вызываемом методе
+     * @return результат выполнения метода
+     * @throws Throwable если произошла ошибка или попытки исчерпаны
+     */
+    @Around("@annotation(com.example.bankcards.aspect.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        // inside an outer transaction the conflict has already doomed it, so only the outer caller can retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    throw e;
+                }
+                log.debug("Conflict in {} (attempt {} of {}): {}",
+                        joinPoint.getSignature().toShortString(), attempt, properties.getMaxAttempts(), e.getMessage());
+                TimeUnit.NANOSECONDS.sleep(backoffNanos(attempt));
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Вычисляет задержку перед следующей попыткой.
+     * @param attempt номер неудачной попытки (начиная с 1)
+     * @return задержка в наносекундах, случайная в пределах [0, min(max, initial * 2^(attempt-1))]
+     */
+    private long backoffNanos(int attempt) {
+        long initial = properties.getInitialBackoff().toNanos();
+        long max = properties.getMaxBackoff().toNanos();
+        long ceiling = initial << Math.min(attempt - 1, 20);
+        if (ceiling <= 0 || ceiling > max) {
+            ceiling = max;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
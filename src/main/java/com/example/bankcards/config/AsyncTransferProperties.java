@@ -0,0 +1,21 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Конфигурационные свойства асинхронных переводов (префикс transfer.async).
+ */
+@Component
+@ConfigurationProperties(prefix = "transfer.async")
+@Getter
+@Setter
+public class AsyncTransferProperties {
+    private boolean enabled;
+    private int shards = 4;
+    private int queueCapacity = 10_000;
+    private int batchSize = 100;
+    private int statusCacheSize = 100_000;
+}
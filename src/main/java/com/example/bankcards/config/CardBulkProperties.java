@@ -0,0 +1,19 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Конфигурационные свойства массового выпуска карт (префикс card.bulk).
+ * Карты вставляются транзакциями по chunk-size строк, внутри транзакции — JDBC-пакетами по batch-size.
+ */
+@Component
+@ConfigurationProperties(prefix = "card.bulk")
+@Getter
+@Setter
+public class CardBulkProperties {
+    private int chunkSize = 2000;
+    private int batchSize = 500;
+}
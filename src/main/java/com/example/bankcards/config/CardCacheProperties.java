@@ -0,0 +1,22 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Конфигурационные свойства кэша чтения карт (префикс card.cache).
+ * Запись кэша живет не дольше ttl, даже если изменение карты прошло мимо сервиса.
+ */
+@Component
+@ConfigurationProperties(prefix = "card.cache")
+@Getter
+@Setter
+public class CardCacheProperties {
+    private boolean enabled;
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,39 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Конфигурационные свойства задания пометки истекших карт (префикс card.expired).
+ * Аренда раздела продлевается после каждого диапазона, поэтому leaseDuration должна превышать время обработки диапазона
+ * и расхождение часов узлов.
+ * resumeInterval — пауза между проверками незавершенного запуска текущего месяца (см. ExpiredCardScheduler).
+ * Свойства writeBack управляют записью статуса карт, истекший срок которых обнаружен при чтении.
+ */
+@Component
+@ConfigurationProperties(prefix = "card.expired")
+@Getter
+@Setter
+public class CardExpiryProperties {
+    private int chunkSize = 1000;
+    private int partitions = 64;
+    private int workers = 4;
+    private Duration leaseDuration = Duration.ofMinutes(5);
+    private Duration resumeInterval = Duration.ofMinutes(5);
+    private WriteBack writeBack = new WriteBack();
+
+    /**
+     * Свойства отложенной записи статуса EXPIRED.
+     */
+    @Getter
+    @Setter
+    public static class WriteBack {
+        private int batchSize = 500;
+        private int maxPending = 10_000;
+        private Duration interval = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Конфигурационные свойства генерации номеров карт (префикс card.number).
+ * Номер карты состоит из BIN (6 цифр), номера счета (9 цифр) и контрольной цифры Луна.
+ */
+@Component
+@ConfigurationProperties(prefix = "card.number")
+@Getter
+@Setter
+public class CardNumberProperties {
+    private String bin = "400000";
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Конфигурационные свойства идемпотентности переводов (префикс transfer.idempotency).
+ * Ключ действует не меньше ttl: затем его удаляет очистка, запускаемая с паузой purge.interval
+ * порциями по purge.batchSize ключей.
+ */
+@Component
+@ConfigurationProperties(prefix = "transfer.idempotency")
+@Getter
+@Setter
+public class IdempotencyProperties {
+    private int cacheSize = 10_000;
+    private Duration ttl = Duration.ofHours(24);
+    private Purge purge = new Purge();
+
+    /**
+     * Свойства очистки устаревших ключей.
+     */
+    @Getter
+    @Setter
+    public static class Purge {
+        private int batchSize = 1000;
+        private Duration interval = Duration.ofHours(1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * JSON-представление {@link Money}: десятичное число с двумя знаками после запятой, например 100.50.
+ */
+@JsonComponent
+public class MoneyJsonComponent {
+
+    /** Записывает Money как десятичное число. */
+    public static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money money, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(money.toBigDecimal());
+        }
+    }
+
+    /** Читает Money из числа или строки, отклоняя суммы с более чем двумя знаками после запятой или 17 знаками до нее. */
+    public static class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            BigDecimal amount = parser.currentToken() == JsonToken.VALUE_STRING
+                    ? parseDecimal(parser, context)
+                    : parser.getDecimalValue();
+            try {
+                return Money.of(amount);
+            } catch (ArithmeticException e) {
+                return (Money) context.handleWeirdNumberValue(Money.class, amount, e.getMessage());
+            }
+        }
+
+        private BigDecimal parseDecimal(JsonParser parser, DeserializationContext context) throws IOException {
+            String text = parser.getText().trim();
+            try {
+                return new BigDecimal(text);
+            } catch (NumberFormatException e) {
+                return (BigDecimal) context.handleWeirdStringValue(Money.class, text, "amount must be a decimal number");
+            }
+        }
+    }
+}
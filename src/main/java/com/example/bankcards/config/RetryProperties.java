@@ -0,0 +1,21 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Конфигурационные свойства повторов при конфликте версий (префикс retry.conflict).
+ */
+@Component
+@ConfigurationProperties(prefix = "retry.conflict")
+@Getter
+@Setter
+public class RetryProperties {
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(20);
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Конфигурационные свойства блокировок карт внутри приложения (префикс transfer.lock.striped).
+ */
+@Component
+@ConfigurationProperties(prefix = "transfer.lock.striped")
+@Getter
+@Setter
+public class StripedLockProperties {
+    private boolean enabled;
+    private int stripes = 1024;
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.enums.CardStatusEnum;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Конфигурационные свойства лимитов исходящих переводов по карте (префикс transfer.limits).
+ * Лимиты задаются отдельно для каждого статуса карты, отсутствующий лимит не ограничивает переводы.
+ * rebuildBatchSize — число карт, журнал которых читается одним запросом при восстановлении счетчиков.
+ */
+@Component
+@ConfigurationProperties(prefix = "transfer.limits")
+@Getter
+@Setter
+public class TransferLimitProperties {
+    private boolean enabled;
+    private int stripes = 1024;
+    private int rebuildBatchSize = 1000;
+    private Map<CardStatusEnum, Limit> statuses = new EnumMap<>(CardStatusEnum.class);
+
+    /**
+     * Лимиты для одного статуса карты.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+        private BigDecimal hourly;
+        private BigDecimal daily;
+    }
+}
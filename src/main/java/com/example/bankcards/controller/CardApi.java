@@ -3,19 +3,32 @@ package com.example.bankcards.controller;
 import com.example.bankcards.dto.request.CardCreateRequest;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.BlockRequestResponse;
+import com.example.bankcards.dto.response.CardBulkErrorResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.TransferResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.util.KeysetUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,34 +44,70 @@ import static com.example.bankcards.util.ValidationValues.Page.OFFSET_DEFAULT_VA
 @RequestMapping("/api/cards")
 public interface CardApi {
 
+    /** Тип содержимого CSV для массового выпуска карт. */
+    String TEXT_CSV_VALUE = "text/csv";
+
     /**
-     * Возвращает список всех банковских карт с пагинацией.
+     * Возвращает список банковских карт с пагинацией.
+     * Администратор получает все карты, пользователь — только свои.
+     * @param currentUser аутентифицированный пользователь
      * @param page номер страницы (начиная с 0)
      * @param size размер страницы
+     * @param after курсор keyset-пагинации (необязательный)
      * @return список карт
      */
     @Operation(
             summary = "Получить список карт",
-            description = "Возвращает список всех банковских карт с пагинацией",
+            description = "Возвращает список банковских карт с пагинацией: все карты для администратора, собственные карты для пользователя",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Список карт успешно получен",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = CardResponse.class)))
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = CardResponse.class))),
+                            headers = @Header(name = KeysetUtil.NEXT_CURSOR_HEADER, description = "Курсор следующей страницы в режиме keyset-пагинации")
                     )
             }
     )
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    List<CardResponse> getCards(
+    ResponseEntity<List<CardResponse>> getCards(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal User currentUser,
+
             @Parameter(description = "Номер страницы", example = "0")
             @RequestParam(defaultValue = OFFSET_DEFAULT_VALUE) Integer page,
 
             @Parameter(description = "Размер страницы", example = "10")
-            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) Integer size
+            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) Integer size,
+
+            @Parameter(description = "Курсор keyset-пагинации: пустое значение — первая страница, далее значение заголовка X-Next-Cursor; page при этом не используется")
+            @RequestParam(required = false) String after
     );
 
+    /**
+     * Выгружает все банковские карты в формате NDJSON: одна карта в строке, в порядке номера.
+     * Ответ формируется по мере чтения карт из базы, без загрузки всего списка в память.
+     * @return поток карт в формате NDJSON
+     */
+    @Operation(
+            summary = "Выгрузить все карты",
+            description = "Потоково выгружает все банковские карты в формате NDJSON (только для администраторов). " +
+                    "Время выгрузки ограничено spring.mvc.async.request-timeout",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Выгрузка карт, по одному CardResponse в строке",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = CardResponse.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    ResponseEntity<StreamingResponseBody> exportCards();
+
     /**
      * Возвращает детальную информацию о карте по её номеру.
      * @param number номер карты
@@ -99,6 +148,48 @@ public interface CardApi {
     @PreAuthorize("hasRole('ADMIN')")
     void createCard(@Valid @RequestBody CardCreateRequest request);
 
+    /**
+     * Массово выпускает банковские карты из тела запроса в формате NDJSON (CardCreateRequest в строке)
+     * или CSV (number,expirationDate,ownerId, заголовок необязателен).
+     * Тело читается и карты создаются по мере поступления строк, ошибки строк возвращаются потоком NDJSON.
+     * @param contentType тип содержимого запроса
+     * @param body тело запроса
+     * @return поток ошибок строк в формате NDJSON
+     */
+    @Operation(
+            summary = "Массово выпустить карты",
+            description = "Создает карты из строк NDJSON или CSV порциями в отдельных транзакциях (только для администраторов). " +
+                    "Строка с ошибкой не прерывает выпуск, ответ содержит по одной ошибке в строке и сбрасывается после каждой порции. " +
+                    "Время выпуска ограничено spring.mvc.async.request-timeout",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = CardCreateRequest.class)),
+                            @Content(mediaType = TEXT_CSV_VALUE, schema = @Schema(type = "string", example = "number,expirationDate,ownerId\n1234567812345678,2030-12,d3d94468-2d6a-4d2a-9f38-0a9d27f8c1b3"))
+                    }
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Выпуск выполнен, по одному CardBulkErrorResponse в строке для каждой отклоненной строки",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = CardBulkErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    ResponseEntity<StreamingResponseBody> createCardsBulk(
+            @Parameter(hidden = true)
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+
+            @Parameter(hidden = true)
+            InputStream body
+    );
+
     /**
      * Блокирует банковскую карту.
      * @param number номер карты для блокировки
@@ -180,6 +271,40 @@ public interface CardApi {
             @PathVariable("number") String number
     );
 
+    /**
+     * Возвращает историю переводов по карте с keyset-пагинацией.
+     * Администратор получает историю любой карты, пользователь — только своих.
+     * @param currentUser аутентифицированный пользователь
+     * @param number номер карты
+     * @param after курсор из заголовка X-Next-Cursor предыдущего ответа (отсутствует для первой страницы)
+     * @param size размер страницы
+     * @return переводы страницы
+     */
+    @Operation(
+            summary = "Получить историю переводов по карте",
+            description = "Возвращает переводы по карте от новых к старым: любой карты для администратора, собственной карты для пользователя",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "История переводов успешно получена",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = TransferResponse.class))),
+                            headers = @Header(name = KeysetUtil.NEXT_CURSOR_HEADER, description = "Курсор следующей страницы")
+                    )
+            }
+    )
+    @GetMapping("/{number}/transfers")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    ResponseEntity<List<TransferResponse>> getCardTransfers(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal User currentUser,
+            @Parameter(description = "Номер карты", example = "1234567812345678")
+            @PathVariable("number") String number,
+            @Parameter(description = "Курсор: значение заголовка X-Next-Cursor из предыдущего ответа")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы", example = "10")
+            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) @Min(1) @Max(100) Integer size
+    );
+
     // block-requests
 
     /**
@@ -205,6 +330,7 @@ public interface CardApi {
      * Возвращает список всех запросов на блокировку карт.
      * @param page номер страницы (начиная с 0)
      * @param size размер страницы
+     * @param after курсор keyset-пагинации (необязательный)
      * @return список запросов на блокировку
      */
     @Operation(
@@ -214,19 +340,22 @@ public interface CardApi {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Список запросов успешно получен",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BlockRequestResponse.class)))
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BlockRequestResponse.class))),
+                            headers = @Header(name = KeysetUtil.NEXT_CURSOR_HEADER, description = "Курсор следующей страницы в режиме keyset-пагинации")
                     )
             }
     )
     @GetMapping("/block-requests")
-    @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('ADMIN')")
-    List<BlockRequestResponse> getAllBlockRequests(
+    ResponseEntity<List<BlockRequestResponse>> getAllBlockRequests(
             @Parameter(description = "Номер страницы", example = "0")
             @RequestParam(defaultValue = OFFSET_DEFAULT_VALUE) Integer page,
 
             @Parameter(description = "Размер страницы", example = "10")
-            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) Integer size
+            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) Integer size,
+
+            @Parameter(description = "Курсор keyset-пагинации: пустое значение — первая страница, далее значение заголовка X-Next-Cursor; page при этом не используется")
+            @RequestParam(required = false) String after
     );
 
     /**
@@ -234,6 +363,7 @@ public interface CardApi {
      * @param status статус запроса (PENDING, APPROVED, REJECTED)
      * @param page номер страницы (начиная с 0)
      * @param size размер страницы
+     * @param after курсор keyset-пагинации (необязательный)
      * @return список запросов по статусу
      */
     @Operation(
@@ -243,14 +373,14 @@ public interface CardApi {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Список запросов успешно получен",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BlockRequestResponse.class)))
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BlockRequestResponse.class))),
+                            headers = @Header(name = KeysetUtil.NEXT_CURSOR_HEADER, description = "Курсор следующей страницы в режиме keyset-пагинации")
                     )
             }
     )
     @GetMapping("/block-requests/status/{status}")
-    @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('ADMIN')")
-    List<BlockRequestResponse> getBlockRequestsByStatus(
+    ResponseEntity<List<BlockRequestResponse>> getBlockRequestsByStatus(
             @Parameter(description = "Статус запроса", example = "PENDING")
             @PathVariable String status,
 
@@ -258,7 +388,10 @@ public interface CardApi {
             @RequestParam(defaultValue = OFFSET_DEFAULT_VALUE) Integer page,
 
             @Parameter(description = "Размер страницы", example = "10")
-            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) Integer size
+            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) Integer size,
+
+            @Parameter(description = "Курсор keyset-пагинации: пустое значение — первая страница, далее значение заголовка X-Next-Cursor; page при этом не используется")
+            @RequestParam(required = false) String after
     );
 
     /**
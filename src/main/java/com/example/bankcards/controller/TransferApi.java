@@ -1,17 +1,33 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.request.TransferBatchRequest;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransferResultResponse;
+import com.example.bankcards.dto.response.TransferStatusResponse;
+import com.example.bankcards.entity.User;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.List;
+import java.util.UUID;
+
 /**
  * REST API для переводов средств между банковскими картами.
  */
@@ -23,7 +39,8 @@ public interface TransferApi {
             summary = "Выполнить перевод",
             description = "Переводит средства между банковскими картами",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Перевод успешно выполнен")
+                    @ApiResponse(responseCode = "200", description = "Перевод успешно выполнен"),
+                    @ApiResponse(responseCode = "409", description = "Ключ идемпотентности использован для другого перевода")
             }
     )
     @PostMapping
@@ -33,7 +50,89 @@ public interface TransferApi {
      * Выполняет перевод средств между банковскими картами.
      * Карты должны принадлежать одному пользователю и быть активными.
      *
+     * Повтор запроса с тем же заголовком Idempotency-Key не списывает средства повторно.
+     *
+     * @param currentUser аутентифицированный пользователь (ключ идемпотентности действует в его пределах)
      * @param request данные для перевода (карта-отправитель, карта-получатель, сумма)
+     * @param idempotencyKey ключ идемпотентности (необязателен)
+     */
+    void transfer(@Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
+                  @Valid @RequestBody TransferRequest request,
+                  @Parameter(description = "Ключ идемпотентности перевода")
+                  @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 64) String idempotencyKey);
+
+    /**
+     * Выполняет пакет переводов в одной транзакции.
+     * Каждый перевод проверяется отдельно, отклоненные переводы не прерывают выполнение остальных.
+     * @param request список переводов
+     * @return результаты переводов в порядке следования в пакете
+     */
+    @Operation(
+            summary = "Выполнить пакет переводов",
+            description = "Выполняет список переводов между картами в одной транзакции и возвращает результат по каждому",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Пакет обработан",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = TransferResultResponse.class)))
+                    )
+            }
+    )
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    List<TransferResultResponse> transferBatch(@Valid @RequestBody TransferBatchRequest request);
+
+    /**
+     * Принимает перевод на асинхронное выполнение.
+     * Перевод выполняется позже в составе пакета, результат запрашивается по возвращенному id.
+     * @param currentUser аутентифицированный пользователь (только ему доступно состояние перевода)
+     * @param request данные для перевода
+     * @return состояние принятого перевода
      */
-    void transfer(@Valid @RequestBody TransferRequest request);
+    @Operation(
+            summary = "Выполнить перевод асинхронно",
+            description = "Принимает перевод в очередь и возвращает его id для запроса состояния",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Перевод принят в очередь",
+                            content = @Content(schema = @Schema(implementation = TransferStatusResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "503", description = "Асинхронный режим выключен или очередь заполнена")
+            }
+    )
+    @PostMapping("/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    TransferStatusResponse transferAsync(@Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
+                                         @Valid @RequestBody TransferRequest request);
+
+    /**
+     * Возвращает состояние асинхронного перевода.
+     * Перевод другого пользователя отвечает 404.
+     * @param currentUser аутентифицированный пользователь
+     * @param transferId id перевода
+     * @return состояние перевода
+     */
+    @Operation(
+            summary = "Получить состояние асинхронного перевода",
+            description = "Возвращает статус перевода, принятого в очередь, и причину отказа, если он не выполнен",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Состояние перевода успешно получено",
+                            content = @Content(schema = @Schema(implementation = TransferStatusResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "404", description = "Перевод не найден или отправлен другим пользователем")
+            }
+    )
+    @GetMapping("/async/{transferId}")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    TransferStatusResponse getTransferStatus(
+            @Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
+            @Parameter(description = "ID перевода", example = "7c9e6679-7425-40de-944b-e07fc1f90ae7")
+            @PathVariable("transferId") UUID transferId
+    );
 }
@@ -3,8 +3,10 @@ package com.example.bankcards.controller;
 import com.example.bankcards.dto.request.UserCreateRequest;
 import com.example.bankcards.dto.request.UserPasswordUpdateRequest;
 import com.example.bankcards.dto.response.UserResponse;
+import com.example.bankcards.util.KeysetUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,26 +38,30 @@ public interface UserApi {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Список пользователей успешно получен",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponse.class)))
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponse.class))),
+                            headers = @Header(name = KeysetUtil.NEXT_CURSOR_HEADER, description = "Курсор следующей страницы в режиме keyset-пагинации")
                     )
             }
     )
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('ADMIN')")
     /**
      * Возвращает список всех пользователей системы с пагинацией.
      *
      * @param page номер страницы (начиная с 0)
      * @param size размер страницы
+     * @param after курсор keyset-пагинации (необязательный)
      * @return список пользователей
      */
-    List<UserResponse> getUsers(
+    ResponseEntity<List<UserResponse>> getUsers(
             @Parameter(description = "Номер страницы", example = "0")
             @RequestParam(defaultValue = OFFSET_DEFAULT_VALUE) Integer page,
 
             @Parameter(description = "Размер страницы", example = "10")
-            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) Integer size
+            @RequestParam(defaultValue = LIMIT_DEFAULT_VALUE) Integer size,
+
+            @Parameter(description = "Курсор keyset-пагинации: пустое значение — первая страница, далее значение заголовка X-Next-Cursor; page при этом не используется")
+            @RequestParam(required = false) String after
     );
 
     @Operation(
@@ -4,31 +4,82 @@ import com.example.bankcards.controller.CardApi;
 import com.example.bankcards.dto.request.CardCreateRequest;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.BlockRequestResponse;
+import com.example.bankcards.dto.response.CardBulkErrorResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.TransferResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardBulkFormatEnum;
+import com.example.bankcards.enums.RoleNameEnum;
 import com.example.bankcards.service.BlockRequestService;
+import com.example.bankcards.service.CardBulkService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransferService;
+import com.example.bankcards.util.KeysetUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Реализация {@link com.example.bankcards.controller.CardApi}.
- * Делегирует операции по сервисам {@link com.example.bankcards.service.CardService}
- * и {@link com.example.bankcards.service.BlockRequestService}.
+ * Делегирует операции по сервисам {@link com.example.bankcards.service.CardService},
+ * {@link com.example.bankcards.service.BlockRequestService} и {@link com.example.bankcards.service.TransferService}.
+ * Выгрузка карт пишется в ответ построчно в формате NDJSON по мере чтения из сервиса.
+ * Массовый выпуск читает тело запроса построчно через {@link com.example.bankcards.service.CardBulkService}
+ * и пишет ошибки строк в ответ по мере их появления.
  */
 @RestController
 @RequiredArgsConstructor
 public class CardController implements CardApi {
 
     private final CardService cardService;
+    private final CardBulkService cardBulkService;
     private final BlockRequestService blockRequestService;
+    private final TransferService transferService;
+    private final ObjectMapper objectMapper;
 
     /** {@inheritDoc} */
     @Override
-    public List<CardResponse> getCards(Integer page, Integer size) {
-        return cardService.getAll(page, size);
+    public ResponseEntity<List<CardResponse>> getCards(User currentUser, Integer page, Integer size, String after) {
+        boolean admin = currentUser.hasRole(RoleNameEnum.ROLE_ADMIN);
+        if (after != null) {
+            return KeysetUtil.toResponse(admin
+                    ? cardService.getAllAfter(after, size)
+                    : cardService.getAllByOwnerAfter(currentUser.getUserId(), after, size));
+        }
+        return ResponseEntity.ok(admin
+                ? cardService.getAll(page, size)
+                : cardService.getAllByOwner(currentUser.getUserId(), page, size));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportCards() {
+        ObjectWriter writer = objectMapper.writerFor(CardResponse.class);
+        StreamingResponseBody body = outputStream -> cardService.exportAll(card -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(card));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /** {@inheritDoc} */
@@ -43,6 +94,37 @@ public class CardController implements CardApi {
         cardService.create(request);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ResponseEntity<StreamingResponseBody> createCardsBulk(MediaType contentType, InputStream body) {
+        CardBulkFormatEnum format = contentType.isCompatibleWith(MediaType.valueOf(TEXT_CSV_VALUE))
+                ? CardBulkFormatEnum.CSV
+                : CardBulkFormatEnum.NDJSON;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        ObjectWriter writer = objectMapper.writerFor(CardBulkErrorResponse.class);
+        StreamingResponseBody response = outputStream -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+            cardBulkService.createAll(reader, format, error -> {
+                try {
+                    outputStream.write(writer.writeValueAsBytes(error));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, () -> {
+                // errors of a committed chunk reach the client without waiting for the whole body
+                try {
+                    outputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(response);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void blockCard(String number) {
@@ -67,6 +149,14 @@ public class CardController implements CardApi {
         return cardService.getBalance(number);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ResponseEntity<List<TransferResponse>> getCardTransfers(User currentUser, String number, String after, Integer size) {
+        return KeysetUtil.toResponse(currentUser.hasRole(RoleNameEnum.ROLE_ADMIN)
+                ? transferService.getHistory(number, after, size)
+                : transferService.getHistoryByOwner(currentUser.getUserId(), number, after, size));
+    }
+
     // block-requests
 
     /** {@inheritDoc} */
@@ -77,14 +167,20 @@ public class CardController implements CardApi {
 
     /** {@inheritDoc} */
     @Override
-    public List<BlockRequestResponse> getAllBlockRequests(Integer page, Integer size) {
-        return blockRequestService.getAll(page, size);
+    public ResponseEntity<List<BlockRequestResponse>> getAllBlockRequests(Integer page, Integer size, String after) {
+        if (after != null) {
+            return KeysetUtil.toResponse(blockRequestService.getAllAfter(after, size));
+        }
+        return ResponseEntity.ok(blockRequestService.getAll(page, size));
     }
 
     /** {@inheritDoc} */
     @Override
-    public List<BlockRequestResponse> getBlockRequestsByStatus(String status, Integer page, Integer size) {
-        return blockRequestService.getByStatus(status, page, size);
+    public ResponseEntity<List<BlockRequestResponse>> getBlockRequestsByStatus(String status, Integer page, Integer size, String after) {
+        if (after != null) {
+            return KeysetUtil.toResponse(blockRequestService.getByStatusAfter(status, after, size));
+        }
+        return ResponseEntity.ok(blockRequestService.getByStatus(status, page, size));
     }
 
     /** {@inheritDoc} */
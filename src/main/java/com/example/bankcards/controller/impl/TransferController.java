@@ -1,24 +1,52 @@
 package com.example.bankcards.controller.impl;
 
 import com.example.bankcards.controller.TransferApi;
+import com.example.bankcards.dto.request.TransferBatchRequest;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransferResultResponse;
+import com.example.bankcards.dto.response.TransferStatusResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.AsyncTransferService;
 import com.example.bankcards.service.TransferService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Реализация {@link com.example.bankcards.controller.TransferApi}.
- * Делегирует операции перевода сервису {@link com.example.bankcards.service.TransferService}.
+ * Делегирует операции перевода сервисам {@link com.example.bankcards.service.TransferService}
+ * и {@link com.example.bankcards.service.AsyncTransferService}.
  */
 @RestController
 @RequiredArgsConstructor
 public class TransferController implements TransferApi {
 
     private final TransferService transferService;
+    private final AsyncTransferService asyncTransferService;
+
+    /** {@inheritDoc} */
+    @Override
+    public void transfer(User currentUser, TransferRequest request, String idempotencyKey) {
+        transferService.transfer(request, currentUser.getUserId(), idempotencyKey);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<TransferResultResponse> transferBatch(TransferBatchRequest request) {
+        return transferService.transferBatch(request.transfers());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TransferStatusResponse transferAsync(User currentUser, TransferRequest request) {
+        return asyncTransferService.submit(request, currentUser.getUserId());
+    }
 
     /** {@inheritDoc} */
     @Override
-    public void transfer(TransferRequest request) {
-        transferService.transfer(request);
+    public TransferStatusResponse getTransferStatus(User currentUser, UUID transferId) {
+        return asyncTransferService.getStatus(transferId, currentUser.getUserId());
     }
 }
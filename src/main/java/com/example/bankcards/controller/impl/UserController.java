@@ -5,7 +5,9 @@ import com.example.bankcards.dto.request.UserCreateRequest;
 import com.example.bankcards.dto.request.UserPasswordUpdateRequest;
 import com.example.bankcards.dto.response.UserResponse;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.KeysetUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,8 +25,11 @@ public class UserController implements UserApi {
 
     /** {@inheritDoc} */
     @Override
-    public List<UserResponse> getUsers(Integer page, Integer size) {
-        return userService.getAll(page, size);
+    public ResponseEntity<List<UserResponse>> getUsers(Integer page, Integer size, String after) {
+        if (after != null) {
+            return KeysetUtil.toResponse(userService.getAllAfter(after, size));
+        }
+        return ResponseEntity.ok(userService.getAll(page, size));
     }
 
     /** {@inheritDoc} */
@@ -2,7 +2,6 @@ package com.example.bankcards.dto.request;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Future;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
@@ -11,14 +10,13 @@ import java.util.UUID;
 
 /**
  * Запрос на создание новой банковской карты.
- * @param number номер карты
+ * @param number номер карты, если не указан — генерируется сервером; номер из BIN генерируемых карт не принимается
  * @param expirationDate дата недействительности
  * @param ownerId id владельца
  */
 @Schema(description = "Запрос на создание банковской карты")
 public record CardCreateRequest(
-        @Schema(description = "Номер карты (16 цифр)", example = "1234567812345678", pattern = "\\d{16}")
-        @NotBlank(message = "Card number is required")
+        @Schema(description = "Номер карты (16 цифр), если не указан — генерируется сервером. Номер из BIN card.number.bin отклоняется", example = "1234567812345678", pattern = "\\d{16}")
         @Pattern(regexp = "\\d{16}", message = "Card number must be 16 digits")
         String number,
 
@@ -0,0 +1,27 @@
+package com.example.bankcards.dto.request;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Запрос на пакетное выполнение переводов между картами одного пользователя.
+ * @param transfers список переводов
+ */
+@Schema(description = "Запрос на пакетный перевод средств")
+public record TransferBatchRequest(
+        @ArraySchema(
+                arraySchema = @Schema(description = "Переводы, выполняемые в одной транзакции"),
+                schema = @Schema(implementation = TransferRequest.class),
+                maxItems = 1000
+        )
+        @NotEmpty(message = "Transfers list must not be empty")
+        @Size(max = 1000, message = "Batch must contain at most 1000 transfers")
+        List<@Valid @NotNull(message = "Transfer must not be null") TransferRequest> transfers
+) {
+}
@@ -1,10 +1,10 @@
 package com.example.bankcards.dto.request;
 
+import com.example.bankcards.util.Money;
+import com.example.bankcards.validation.PositiveMoney;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
-import java.math.BigDecimal;
-
 /**
  * Запрос на перевод средств между картами одного пользователя.
  * @param numberFrom номер карты отправителя
@@ -23,10 +23,9 @@ public record TransferRequest(
         @Pattern(regexp = "\\d{16}", message = "Destination card number must be 16 digits")
         String numberTo,
 
-        @Schema(description = "Сумма перевода", example = "100.50", minimum = "0.01")
+        @Schema(description = "Сумма перевода", type = "number", example = "100.50", minimum = "0.01")
         @NotNull(message = "Amount is required")
-        @Positive(message = "Amount must be positive")
-        @DecimalMin(value = "0.01", message = "Amount must be at least 0.01")
-        BigDecimal amount
+        @PositiveMoney(message = "Amount must be at least 0.01")
+        Money amount
 ) {
 }
\ No newline at end of file
@@ -1,10 +1,9 @@
 package com.example.bankcards.dto.response;
 
+import com.example.bankcards.util.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 
-import java.math.BigDecimal;
-
 /**
  * Ответ с информацией о балансе банковской карты.
  * @param cardNumber номер карты
@@ -16,7 +15,7 @@ public record BalanceResponse(
         @Schema(description = "Номер карты", example = "1234567812345678")
         String cardNumber,
 
-        @Schema(description = "Текущий баланс", example = "1500.75")
-        BigDecimal balance
+        @Schema(description = "Текущий баланс", type = "number", example = "1500.75")
+        Money balance
 ) {
 }
\ No newline at end of file
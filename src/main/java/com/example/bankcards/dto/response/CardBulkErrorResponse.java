@@ -0,0 +1,18 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Ошибка выпуска карты по одной строке массового запроса.
+ * @param line номер строки запроса
+ * @param message причина отказа
+ */
+@Schema(description = "Ошибка строки массового выпуска карт")
+public record CardBulkErrorResponse(
+        @Schema(description = "Номер строки запроса (начиная с 1)", example = "42")
+        Long line,
+
+        @Schema(description = "Причина отказа", example = "User not found with id: d3d94468-2d6a-4d2a-9f38-0a9d27f8c1b3")
+        String message
+) {
+}
@@ -1,9 +1,9 @@
 package com.example.bankcards.dto.response;
 
+import com.example.bankcards.util.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 
-import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.util.UUID;
 
@@ -27,8 +27,8 @@ public record CardResponse(
         @Schema(description = "Статус карты", example = "ACTIVE", allowableValues = {"ACTIVE", "BLOCKED"})
         String status,
 
-        @Schema(description = "Текущий баланс", example = "1500.75")
-        BigDecimal balance,
+        @Schema(description = "Текущий баланс", type = "number", example = "1500.75")
+        Money balance,
 
         @Schema(description = "ID владельца карты", example = "d3d94468-2d6a-4d2a-9f38-0a9d27f8c1b3")
         UUID ownerId
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.response;
+
+import java.util.List;
+
+/**
+ * Страница списка в режиме keyset-пагинации.
+ * @param items элементы страницы
+ * @param nextCursor курсор следующей страницы (null, если страница последняя)
+ * @param <T> тип элементов
+ */
+public record KeysetPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+}
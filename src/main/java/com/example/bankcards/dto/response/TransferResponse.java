@@ -0,0 +1,35 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.util.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ответ с данными перевода из журнала.
+ * @param id id перевода
+ * @param numberFrom замаскированный номер карты-отправителя
+ * @param numberTo замаскированный номер карты-получателя
+ * @param amount сумма перевода
+ * @param createdAt дата перевода
+ */
+@Builder
+@Schema(description = "Ответ с информацией о переводе")
+public record TransferResponse(
+        @Schema(description = "ID перевода", example = "1051")
+        Long id,
+
+        @Schema(description = "Номер карты-отправителя", example = "************5678")
+        String numberFrom,
+
+        @Schema(description = "Номер карты-получателя", example = "************4321")
+        String numberTo,
+
+        @Schema(description = "Сумма перевода", type = "number", example = "150.00")
+        Money amount,
+
+        @Schema(description = "Дата перевода", example = "2025-06-01T12:30:00")
+        LocalDateTime createdAt
+) {
+}
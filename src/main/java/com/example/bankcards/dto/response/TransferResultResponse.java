@@ -0,0 +1,24 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+/**
+ * Результат выполнения одного перевода из пакета.
+ * @param index порядковый номер перевода в пакете
+ * @param status статус выполнения
+ * @param message причина отказа
+ */
+@Builder
+@Schema(description = "Результат перевода из пакета")
+public record TransferResultResponse(
+        @Schema(description = "Порядковый номер перевода в пакете (начиная с 0)", example = "0")
+        Integer index,
+
+        @Schema(description = "Статус перевода", example = "COMPLETED", allowableValues = {"COMPLETED", "FAILED"})
+        String status,
+
+        @Schema(description = "Причина отказа (если перевод не выполнен)", example = "Insufficient funds on source card")
+        String message
+) {
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * Состояние асинхронного перевода.
+ * @param transferId id перевода
+ * @param status статус выполнения
+ * @param message причина отказа
+ */
+@Builder
+@Schema(description = "Состояние асинхронного перевода")
+public record TransferStatusResponse(
+        @Schema(description = "ID перевода", example = "7c9e6679-7425-40de-944b-e07fc1f90ae7")
+        UUID transferId,
+
+        @Schema(description = "Статус перевода", example = "PENDING", allowableValues = {"PENDING", "COMPLETED", "FAILED"})
+        String status,
+
+        @Schema(description = "Причина отказа (если перевод не выполнен)", example = "Insufficient funds on source card")
+        String message
+) {
+}
@@ -1,17 +1,19 @@
 package com.example.bankcards.entity;
 
 import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.util.Money;
+import com.example.bankcards.util.MoneyConverter;
 import com.example.bankcards.util.YearMonthConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.util.Objects;
 
 /**
  * Сущность банковской карты с данными о владельце, балансе, статусе и сроке действия.
- * Первичный ключ — номер карты.
+ * Первичный ключ — номер карты. Поле version используется для оптимистической блокировки.
+ * Владелец загружается лениво: для ответов и проверок переводов нужен только его id из внешнего ключа.
  */
 @Entity
 @Table(name = "cards")
@@ -33,10 +35,11 @@ public class Card {
     @Column(name = "status", nullable = false)
     private CardStatusEnum status;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(precision = 19, scale = 2, nullable = false)
-    private BigDecimal balance;
+    private Money balance;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(
             name = "user_id",
             referencedColumnName = "user_id",
@@ -44,6 +47,10 @@ public class Card {
     )
     private User owner;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
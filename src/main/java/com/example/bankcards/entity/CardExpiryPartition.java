@@ -0,0 +1,68 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.util.YearMonthConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Objects;
+
+/**
+ * Раздел задания пометки истекших карт — диапазон номеров карт, который обрабатывает один исполнитель.
+ * Исполнитель захватывает раздел арендой до leaseUntil и продлевает ее после каждого диапазона,
+ * поэтому раздел упавшего узла после истечения аренды забирает другой исполнитель и продолжает с lastNumber.
+ */
+@Entity
+@Table(name = "card_expiry_partitions")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CardExpiryPartition {
+    @Id
+    @Column(name = "partition_no")
+    private Integer partitionNo;
+
+    @Convert(converter = YearMonthConverter.class)
+    @Column(name = "run_month", nullable = false)
+    private YearMonth runMonth;
+
+    @Column(name = "range_from", length = 16, nullable = false)
+    private String rangeFrom;
+
+    @Column(name = "range_to", length = 16, nullable = false)
+    private String rangeTo;
+
+    @Column(name = "last_number", length = 16, nullable = false)
+    private String lastNumber;
+
+    @Column(name = "expired_cards", nullable = false)
+    private long expiredCards;
+
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CardExpiryPartition that = (CardExpiryPartition) o;
+        return Objects.equals(partitionNo, that.partitionNo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitionNo);
+    }
+}
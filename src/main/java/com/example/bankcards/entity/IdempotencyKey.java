@@ -0,0 +1,66 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Сущность ключа идемпотентности.
+ * Хранит ключ из заголовка Idempotency-Key, пользователя, отправившего запрос, и отпечаток запроса.
+ * Ключ уникален в пределах пользователя, одинаковые ключи разных пользователей не конфликтуют.
+ * У ключей, сохраненных до появления пользователя в ключе и не сопоставленных переводу, user_id пуст:
+ * они не используются и удаляются очисткой по ttl.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@IdClass(IdempotencyKey.UserKey.class)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class IdempotencyKey {
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(name = "fingerprint", nullable = false)
+    private String fingerprint;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdempotencyKey that = (IdempotencyKey) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, key);
+    }
+
+    /**
+     * Составной идентификатор ключа идемпотентности.
+     */
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class UserKey implements Serializable {
+        private UUID userId;
+        private String key;
+    }
+}
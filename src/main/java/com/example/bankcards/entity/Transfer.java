@@ -0,0 +1,55 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.util.Money;
+import com.example.bankcards.util.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Запись журнала переводов между картами.
+ * Журнал только пополняется: записи не изменяются и не удаляются.
+ */
+@Entity
+@Immutable
+@Table(name = "transfers")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Builder
+public class Transfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfers_seq")
+    @SequenceGenerator(name = "transfers_seq", sequenceName = "transfers_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "card_from", length = 16, nullable = false)
+    private String cardFrom;
+
+    @Column(name = "card_to", length = 16, nullable = false)
+    private String cardTo;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
+    private Money amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Transfer transfer = (Transfer) o;
+        return id != null && Objects.equals(id, transfer.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
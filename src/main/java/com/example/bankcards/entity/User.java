@@ -1,5 +1,6 @@
 package com.example.bankcards.entity;
 
+import com.example.bankcards.enums.RoleNameEnum;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -62,10 +63,19 @@ public class User implements UserDetails {
         role.getUsers().add(this);
     }
 
+    /**
+     * Проверяет, назначена ли пользователю роль.
+     * @param roleName название роли
+     * @return true, если роль назначена
+     */
+    public boolean hasRole(RoleNameEnum roleName) {
+        return roles.stream().anyMatch(role -> role.getName() == roleName);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().name()))
+                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
                 .collect(Collectors.toList());
     }
 
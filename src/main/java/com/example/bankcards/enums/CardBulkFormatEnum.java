@@ -0,0 +1,11 @@
+package com.example.bankcards.enums;
+
+/**
+ * Форматы тела запроса массового выпуска карт.
+ */
+public enum CardBulkFormatEnum {
+    /** Один JSON-объект CardCreateRequest в строке. */
+    NDJSON,
+    /** Строки number,expirationDate,ownerId, первая строка может быть заголовком. */
+    CSV
+}
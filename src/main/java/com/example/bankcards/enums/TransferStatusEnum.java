@@ -0,0 +1,13 @@
+package com.example.bankcards.enums;
+
+/**
+ * Статусы выполнения перевода.
+ */
+public enum TransferStatusEnum {
+    /** Перевод принят в очередь и еще не выполнен. */
+    PENDING,
+    /** Перевод выполнен. */
+    COMPLETED,
+    /** Перевод отклонен. */
+    FAILED
+}
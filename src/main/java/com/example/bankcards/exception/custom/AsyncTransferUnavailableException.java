@@ -0,0 +1,13 @@
+package com.example.bankcards.exception.custom;
+
+import com.example.bankcards.exception.base.ServiceException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение: асинхронный перевод не может быть принят (режим выключен или очередь заполнена).
+ */
+public class AsyncTransferUnavailableException extends ServiceException {
+    public AsyncTransferUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
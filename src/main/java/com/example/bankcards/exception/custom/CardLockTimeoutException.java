@@ -0,0 +1,13 @@
+package com.example.bankcards.exception.custom;
+
+import com.example.bankcards.exception.base.ServiceException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение: не удалось дождаться блокировки карт перевода.
+ */
+public class CardLockTimeoutException extends ServiceException {
+    public CardLockTimeoutException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.exception.custom;
+
+import com.example.bankcards.exception.base.ServiceException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение: переданный номер карты относится к BIN, номера которого выдает сам сервис.
+ */
+public class CardNumberReservedException extends ServiceException {
+    public CardNumberReservedException(String message) {
+        super(message, HttpStatus.BAD_REQUEST);
+    }
+}
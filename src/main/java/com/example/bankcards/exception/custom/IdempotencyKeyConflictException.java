@@ -0,0 +1,13 @@
+package com.example.bankcards.exception.custom;
+
+import com.example.bankcards.exception.base.ServiceException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение: ключ идемпотентности уже использован для другого запроса.
+ */
+public class IdempotencyKeyConflictException extends ServiceException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message, HttpStatus.CONFLICT);
+    }
+}
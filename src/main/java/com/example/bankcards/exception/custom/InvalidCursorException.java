@@ -0,0 +1,13 @@
+package com.example.bankcards.exception.custom;
+
+import com.example.bankcards.exception.base.ServiceException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение: курсор пагинации поврежден или сформирован не сервером.
+ */
+public class InvalidCursorException extends ServiceException {
+    public InvalidCursorException(String message) {
+        super(message, HttpStatus.BAD_REQUEST);
+    }
+}
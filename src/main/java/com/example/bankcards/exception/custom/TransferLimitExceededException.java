@@ -0,0 +1,13 @@
+package com.example.bankcards.exception.custom;
+
+import com.example.bankcards.exception.base.ServiceException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение: перевод превышает лимит исходящих переводов по карте.
+ */
+public class TransferLimitExceededException extends ServiceException {
+    public TransferLimitExceededException(String message) {
+        super(message, HttpStatus.BAD_REQUEST);
+    }
+}
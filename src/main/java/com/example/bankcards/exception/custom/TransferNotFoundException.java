@@ -0,0 +1,13 @@
+package com.example.bankcards.exception.custom;
+
+import com.example.bankcards.exception.base.ServiceException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Исключение: перевод не найден.
+ */
+public class TransferNotFoundException extends ServiceException {
+    public TransferNotFoundException(String message) {
+        super(message, HttpStatus.NOT_FOUND);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.bankcards.dto.response.ExceptionMessage;
 import com.example.bankcards.exception.base.ServiceException;
 import com.example.bankcards.exception.custom.BadCredentialsException;
 import org.springframework.context.MessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -95,6 +96,16 @@ public class GlobalExceptionHandler {
                 );
     }
 
+    /** Конфликт версий, не разрешенный повторными попытками. */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public final ExceptionMessage handleOptimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        return ExceptionMessage.builder()
+                .message("Resource was modified concurrently, please retry")
+                .exceptionName(exception.getClass().getSimpleName())
+                .build();
+    }
+
     /** Непредвиденные исключения. */
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
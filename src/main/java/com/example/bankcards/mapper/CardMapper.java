@@ -6,29 +6,29 @@ import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.repository.projection.CardView;
 import com.example.bankcards.util.CardUtil;
+import com.example.bankcards.util.Money;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
 /**
- * Маппер для преобразования сущности Card в DTO и обратно.
+ * Маппер для преобразования данных карты в DTO и запроса создания в сущность Card.
  */
 @Component
 public class CardMapper {
 
 	/**
-	 * Преобразует сущность Card в DTO ответа.
-	 * @param card карта
+	 * Преобразует данные карты в DTO ответа.
+	 * @param card данные карты
 	 * @return dto карты (response)
 	 */
-	public CardResponse toResponse(Card card) {
+	public CardResponse toResponse(CardView card) {
 		return CardResponse.builder()
-				.number(CardUtil.maskCardNumber(card.getNumber()))
-				.expirationDate(card.getExpirationDate())
-				.status(card.getStatus().name())
-				.balance(card.getBalance())
-				.ownerId(card.getOwner().getUserId())
+				.number(CardUtil.maskCardNumber(card.number()))
+				.expirationDate(card.expirationDate())
+				.status(card.status().name())
+				.balance(card.balance())
+				.ownerId(card.ownerId())
 				.build();
 	}
 	
@@ -36,28 +36,29 @@ public class CardMapper {
 	 * Создает сущность Card на основе запроса и владельца.
 	 * Новая карта по умолчанию активна и с нулевым балансом.
 	 * @param request dto создания карты (request)
+	 * @param number номер карты из запроса или сгенерированный
 	 * @param owner владелец карты
 	 * @return сущность карты
 	 */
-	public Card toEntity(CardCreateRequest request, User owner) {
+	public Card toEntity(CardCreateRequest request, String number, User owner) {
 		return Card.builder()
-				.number(request.number())
+				.number(number)
 				.expirationDate(request.expirationDate())
 				.status(CardStatusEnum.ACTIVE)
-				.balance(BigDecimal.ZERO)
+				.balance(Money.ZERO)
 				.owner(owner)
 				.build();
 	}
 	
 	/**
 	 * Создает DTO баланса карты с маскировкой номера.
-	 * @param card карта
+	 * @param card данные карты
 	 * @return dto баланса (response)
 	 */
-	public BalanceResponse toBalanceResponse(Card card) {
+	public BalanceResponse toBalanceResponse(CardView card) {
 		return BalanceResponse.builder()
-				.cardNumber(CardUtil.maskCardNumber(card.getNumber()))
-				.balance(card.getBalance())
+				.cardNumber(CardUtil.maskCardNumber(card.number()))
+				.balance(card.balance())
 				.build();
 	}
-} 
\ No newline at end of file
+}
\ No newline at end of file
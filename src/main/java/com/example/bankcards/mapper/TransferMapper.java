@@ -0,0 +1,127 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransferResponse;
+import com.example.bankcards.dto.response.TransferResultResponse;
+import com.example.bankcards.dto.response.TransferStatusResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.enums.TransferStatusEnum;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.util.CardUtil;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Маппер для формирования DTO по переводам.
+ */
+@Component
+public class TransferMapper {
+
+	/**
+	 * Создает запись журнала для выполненного перевода.
+	 * @param request dto перевода (request)
+	 * @return сущность записи журнала
+	 */
+	public Transfer toEntity(TransferRequest request) {
+		return Transfer.builder()
+				.cardFrom(request.numberFrom())
+				.cardTo(request.numberTo())
+				.amount(request.amount())
+				.createdAt(LocalDateTime.now())
+				.build();
+	}
+
+	/**
+	 * Создает данные карты для проверки перевода из уже загруженной сущности.
+	 * @param card сущность карты
+	 * @return данные карты
+	 */
+	public CardView toCardView(Card card) {
+		return new CardView(card.getNumber(), card.getExpirationDate(), card.getStatus(), card.getBalance(),
+				card.getOwner().getUserId());
+	}
+
+	/**
+	 * Преобразует запись журнала в DTO ответа.
+	 * @param transfer запись журнала
+	 * @return dto перевода (response)
+	 */
+	public TransferResponse toResponse(Transfer transfer) {
+		return TransferResponse.builder()
+				.id(transfer.getId())
+				.numberFrom(CardUtil.maskCardNumber(transfer.getCardFrom()))
+				.numberTo(CardUtil.maskCardNumber(transfer.getCardTo()))
+				.amount(transfer.getAmount())
+				.createdAt(transfer.getCreatedAt())
+				.build();
+	}
+
+	/**
+	 * Создает DTO успешно выполненного перевода из пакета.
+	 * @param index порядковый номер перевода в пакете
+	 * @return dto результата перевода (response)
+	 */
+	public TransferResultResponse toCompletedResult(int index) {
+		return TransferResultResponse.builder()
+				.index(index)
+				.status(TransferStatusEnum.COMPLETED.name())
+				.build();
+	}
+
+	/**
+	 * Создает DTO отклоненного перевода из пакета.
+	 * @param index порядковый номер перевода в пакете
+	 * @param message причина отказа
+	 * @return dto результата перевода (response)
+	 */
+	public TransferResultResponse toFailedResult(int index, String message) {
+		return TransferResultResponse.builder()
+				.index(index)
+				.status(TransferStatusEnum.FAILED.name())
+				.message(message)
+				.build();
+	}
+
+	/**
+	 * Создает DTO состояния асинхронного перевода, принятого в очередь.
+	 * @param transferId id перевода
+	 * @return dto состояния перевода (response)
+	 */
+	public TransferStatusResponse toPendingStatus(UUID transferId) {
+		return TransferStatusResponse.builder()
+				.transferId(transferId)
+				.status(TransferStatusEnum.PENDING.name())
+				.build();
+	}
+
+	/**
+	 * Создает DTO состояния асинхронного перевода по результату его выполнения в пакете.
+	 * @param transferId id перевода
+	 * @param result результат перевода из пакета
+	 * @return dto состояния перевода (response)
+	 */
+	public TransferStatusResponse toStatusResponse(UUID transferId, TransferResultResponse result) {
+		return TransferStatusResponse.builder()
+				.transferId(transferId)
+				.status(result.status())
+				.message(result.message())
+				.build();
+	}
+
+	/**
+	 * Создает DTO состояния отклоненного асинхронного перевода.
+	 * @param transferId id перевода
+	 * @param message причина отказа
+	 * @return dto состояния перевода (response)
+	 */
+	public TransferStatusResponse toFailedStatus(UUID transferId, String message) {
+		return TransferStatusResponse.builder()
+				.transferId(transferId)
+				.status(TransferStatusEnum.FAILED.name())
+				.message(message)
+				.build();
+	}
+}
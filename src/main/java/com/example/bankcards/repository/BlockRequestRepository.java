@@ -4,11 +4,13 @@ import com.example.bankcards.entity.BlockRequest;
 import com.example.bankcards.enums.BlockRequestStatusEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
@@ -33,4 +35,53 @@ public interface BlockRequestRepository extends JpaRepository<BlockRequest, UUID
      */
     @Query("SELECT br FROM BlockRequest br JOIN FETCH br.requester WHERE br.status = :status ORDER BY br.requestDate DESC")
     Page<BlockRequest> findByStatusWithRequester(@Param("status") BlockRequestStatusEnum status, Pageable pageable);
+
+    /**
+     * Возвращает первую страницу запросов в режиме keyset-пагинации, по убыванию (request_date, request_id).
+     * @param pageable размер страницы
+     * @return срез запросов без подсчета общего количества
+     */
+    @Query("SELECT br FROM BlockRequest br JOIN FETCH br.requester " +
+            "ORDER BY br.requestDate DESC, br.requestId DESC")
+    Slice<BlockRequest> findFirstSliceWithRequester(Pageable pageable);
+
+    /**
+     * Возвращает запросы, расположенные после указанной позиции, по убыванию (request_date, request_id).
+     * @param requestDate дата последнего запроса предыдущей страницы
+     * @param requestId id последнего запроса предыдущей страницы
+     * @param pageable размер страницы
+     * @return срез запросов без подсчета общего количества
+     */
+    @Query("SELECT br FROM BlockRequest br JOIN FETCH br.requester " +
+            "WHERE (br.requestDate, br.requestId) < (:requestDate, :requestId) " +
+            "ORDER BY br.requestDate DESC, br.requestId DESC")
+    Slice<BlockRequest> findSliceWithRequesterAfter(@Param("requestDate") LocalDateTime requestDate,
+                                                    @Param("requestId") UUID requestId,
+                                                    Pageable pageable);
+
+    /**
+     * Возвращает первую страницу запросов по статусу в режиме keyset-пагинации.
+     * @param status статус запроса на блокировку
+     * @param pageable размер страницы
+     * @return срез запросов без подсчета общего количества
+     */
+    @Query("SELECT br FROM BlockRequest br JOIN FETCH br.requester WHERE br.status = :status " +
+            "ORDER BY br.requestDate DESC, br.requestId DESC")
+    Slice<BlockRequest> findFirstSliceByStatusWithRequester(@Param("status") BlockRequestStatusEnum status, Pageable pageable);
+
+    /**
+     * Возвращает запросы по статусу, расположенные после указанной позиции.
+     * @param status статус запроса на блокировку
+     * @param requestDate дата последнего запроса предыдущей страницы
+     * @param requestId id последнего запроса предыдущей страницы
+     * @param pageable размер страницы
+     * @return срез запросов без подсчета общего количества
+     */
+    @Query("SELECT br FROM BlockRequest br JOIN FETCH br.requester WHERE br.status = :status " +
+            "AND (br.requestDate, br.requestId) < (:requestDate, :requestId) " +
+            "ORDER BY br.requestDate DESC, br.requestId DESC")
+    Slice<BlockRequest> findSliceByStatusWithRequesterAfter(@Param("status") BlockRequestStatusEnum status,
+                                                            @Param("requestDate") LocalDateTime requestDate,
+                                                            @Param("requestId") UUID requestId,
+                                                            Pageable pageable);
 }
\ No newline at end of file
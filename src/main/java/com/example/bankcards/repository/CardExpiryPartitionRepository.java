@@ -0,0 +1,124 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardExpiryPartition;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Репозиторий разделов задания пометки истекших карт.
+ */
+@Repository
+public interface CardExpiryPartitionRepository extends JpaRepository<CardExpiryPartition, Integer> {
+
+    /**
+     * Проверяет, разбит ли уже на разделы запуск за указанный месяц.
+     * @param runMonth месяц запуска
+     * @return логический тип (true/false)
+     */
+    boolean existsByRunMonth(YearMonth runMonth);
+
+    /**
+     * Удаляет разделы запусков за другие месяцы.
+     * @param runMonth месяц текущего запуска
+     * @return число удаленных разделов
+     */
+    @Modifying
+    @Query("DELETE FROM CardExpiryPartition p WHERE p.runMonth <> :runMonth")
+    int deleteOtherRuns(@Param("runMonth") YearMonth runMonth);
+
+    /**
+     * Сохраняет раздел, если раздел с тем же номером еще не создан.
+     * При конкурентной вставке ожидает завершения чужой транзакции, поэтому запуск разбивает на разделы только один узел.
+     * @param partitionNo номер раздела
+     * @param runMonth месяц запуска в формате yyyymm
+     * @param rangeFrom номер, после которого начинается раздел (не включается)
+     * @param rangeTo номер, которым заканчивается раздел (включается)
+     * @param updatedAt время создания
+     * @return 1, если раздел сохранен, 0, если раздел уже существует
+     */
+    @Modifying
+    @Query(value = "INSERT INTO card_expiry_partitions " +
+            "(partition_no, run_month, range_from, range_to, last_number, expired_cards, updated_at) " +
+            "VALUES (:partitionNo, :runMonth, :rangeFrom, :rangeTo, :rangeFrom, 0, :updatedAt) " +
+            "ON CONFLICT (partition_no) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("partitionNo") int partitionNo,
+                       @Param("runMonth") int runMonth,
+                       @Param("rangeFrom") String rangeFrom,
+                       @Param("rangeTo") String rangeTo,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Находит и блокирует незавершенные разделы запуска без действующей аренды.
+     * Разделы, заблокированные другими узлами, пропускаются (FOR UPDATE SKIP LOCKED), а не ожидаются.
+     * @param runMonth месяц запуска
+     * @param now текущее время
+     * @param pageable число разделов
+     * @return заблокированные разделы в порядке номера
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 renders SKIP LOCKED
+    @Query("SELECT p FROM CardExpiryPartition p " +
+            "WHERE p.runMonth = :runMonth AND p.completedAt IS NULL " +
+            "AND (p.leaseUntil IS NULL OR p.leaseUntil < :now) " +
+            "ORDER BY p.partitionNo")
+    List<CardExpiryPartition> findClaimable(@Param("runMonth") YearMonth runMonth,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    /**
+     * Продлевает аренду раздела, если она все еще принадлежит исполнителю.
+     * Строка раздела остается заблокированной до конца транзакции, поэтому аренду нельзя перехватить во время обработки диапазона.
+     * @param partitionNo номер раздела
+     * @param leaseOwner исполнитель
+     * @param leaseUntil новое время окончания аренды
+     * @return 1, если аренда продлена, 0, если раздел захвачен другим исполнителем
+     */
+    @Modifying
+    @Query("UPDATE CardExpiryPartition p SET p.leaseUntil = :leaseUntil " +
+            "WHERE p.partitionNo = :partitionNo AND p.leaseOwner = :leaseOwner")
+    int renewLease(@Param("partitionNo") int partitionNo,
+                   @Param("leaseOwner") String leaseOwner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Сдвигает раздел на конец обработанного диапазона номеров.
+     * @param partitionNo номер раздела
+     * @param lastNumber номер последней карты обработанного диапазона
+     * @param expiredCards число карт, помеченных в диапазоне
+     * @param updatedAt время обновления
+     * @return число обновленных строк
+     */
+    @Modifying
+    @Query("UPDATE CardExpiryPartition p SET p.lastNumber = :lastNumber, " +
+            "p.expiredCards = p.expiredCards + :expiredCards, p.updatedAt = :updatedAt " +
+            "WHERE p.partitionNo = :partitionNo")
+    int advance(@Param("partitionNo") int partitionNo,
+                @Param("lastNumber") String lastNumber,
+                @Param("expiredCards") long expiredCards,
+                @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Отмечает раздел завершенным и освобождает аренду.
+     * @param partitionNo номер раздела
+     * @param completedAt время завершения
+     * @return число обновленных строк
+     */
+    @Modifying
+    @Query("UPDATE CardExpiryPartition p SET p.completedAt = :completedAt, p.updatedAt = :completedAt, " +
+            "p.leaseOwner = NULL, p.leaseUntil = NULL " +
+            "WHERE p.partitionNo = :partitionNo")
+    int complete(@Param("partitionNo") int partitionNo, @Param("completedAt") LocalDateTime completedAt);
+}
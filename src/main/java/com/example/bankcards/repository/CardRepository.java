@@ -1,18 +1,28 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
-import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.util.Money;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для доступа к сущностям Card.
@@ -28,13 +38,205 @@ public interface CardRepository extends JpaRepository<Card, String> {
     Optional<Card> findByNumber(String number);
 
     /**
-     * Возвращает список карт с истекшим сроком действия на указанную дату.
-     * Включает fetch владельца.
+     * Находит данные карт с пагинацией без загрузки сущностей и владельцев.
+     * @param pageable параметры пагинации
+     * @return страница данных карт
+     */
+    @Query(value = "SELECT new com.example.bankcards.repository.projection.CardView(c.number, c.expirationDate, c.status, c.balance, c.owner.userId) FROM Card c",
+            countQuery = "SELECT count(c) FROM Card c")
+    Page<CardView> findAllViews(Pageable pageable);
+
+    /**
+     * Находит данные карт владельца в порядке номера по индексу (user_id, number).
+     * @param ownerId id владельца
+     * @param pageable параметры пагинации
+     * @return страница данных карт владельца
+     */
+    @Query(value = "SELECT new com.example.bankcards.repository.projection.CardView(c.number, c.expirationDate, c.status, c.balance, c.owner.userId) FROM Card c WHERE c.owner.userId = :ownerId ORDER BY c.number",
+            countQuery = "SELECT count(c) FROM Card c WHERE c.owner.userId = :ownerId")
+    Page<CardView> findViewsByOwner(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+    /**
+     * Находит данные карт с номером больше указанного, по возрастанию номера (keyset-пагинация по первичному ключу).
+     * @param number номер последней карты предыдущей страницы
+     * @param pageable размер страницы
+     * @return срез данных карт без подсчета общего количества
+     */
+    @Query("SELECT new com.example.bankcards.repository.projection.CardView(c.number, c.expirationDate, c.status, c.balance, c.owner.userId) FROM Card c WHERE c.number > :number ORDER BY c.number")
+    Slice<CardView> findViewsAfter(@Param("number") String number, Pageable pageable);
+
+    /**
+     * Находит данные карт владельца с номером больше указанного по индексу (user_id, number).
+     * @param ownerId id владельца
+     * @param number номер последней карты предыдущей страницы
+     * @param pageable размер страницы
+     * @return срез данных карт владельца без подсчета общего количества
+     */
+    @Query("SELECT new com.example.bankcards.repository.projection.CardView(c.number, c.expirationDate, c.status, c.balance, c.owner.userId) FROM Card c WHERE c.owner.userId = :ownerId AND c.number > :number ORDER BY c.number")
+    Slice<CardView> findViewsByOwnerAfter(@Param("ownerId") UUID ownerId, @Param("number") String number, Pageable pageable);
+
+    /**
+     * Читает данные всех карт серверным курсором в порядке номера.
+     * Строки забираются порциями по fetch size, сущности в контекст персистентности не попадают.
+     * Поток должен быть закрыт и прочитан внутри транзакции.
+     * @return поток данных карт
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.bankcards.repository.projection.CardView(c.number, c.expirationDate, c.status, c.balance, c.owner.userId) FROM Card c ORDER BY c.number")
+    Stream<CardView> streamAllViews();
+
+    /**
+     * Находит данные карты по номеру без загрузки сущности и владельца.
+     * @param number номер карты
+     * @return optional данных карты
+     */
+    @Query("SELECT new com.example.bankcards.repository.projection.CardView(c.number, c.expirationDate, c.status, c.balance, c.owner.userId) " +
+            "FROM Card c WHERE c.number = :number")
+    Optional<CardView> findViewByNumber(@Param("number") String number);
+
+    /**
+     * Находит данные карт для проверки перевода одним запросом.
+     * Владелец не загружается, его id берется из внешнего ключа user_id.
+     * @param numbers номера карт
+     * @return список данных найденных карт
+     */
+    @Query("SELECT new com.example.bankcards.repository.projection.CardView(c.number, c.expirationDate, c.status, c.balance, c.owner.userId) " +
+            "FROM Card c WHERE c.number IN :numbers")
+    List<CardView> findViewsByNumberIn(@Param("numbers") Collection<String> numbers);
+
+    /**
+     * Находит карты по номерам и блокирует их строки (SELECT ... FOR UPDATE).
+     * Строки блокируются в порядке возрастания номера карты, поэтому встречные
+     * операции над одними и теми же картами не приводят к взаимоблокировке.
+     * @param numbers номера карт
+     * @return список заблокированных карт, отсортированный по номеру
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.number IN :numbers ORDER BY c.number")
+    List<Card> findAllByNumberForUpdate(@Param("numbers") Collection<String> numbers);
+
+    /**
+     * Списывает сумму с карты одним условным UPDATE без загрузки сущности и увеличивает версию карты.
+     * Строка изменяется, только если карта активна, срок ее действия не истек, на ней достаточно средств
+     * и она принадлежит тому же владельцу, что и карта-получатель.
+     * @param number номер карты-отправителя
+     * @param counterpart номер карты-получателя
+     * @param amount сумма списания
+     * @param yearMonth текущий месяц
+     * @return количество измененных строк (0 или 1)
+     */
+    @Modifying
+    @Query("UPDATE Card c SET c.balance = c.balance - :amount, c.version = c.version + 1 " +
+            "WHERE c.number = :number " +
+            "AND c.status = com.example.bankcards.enums.CardStatusEnum.ACTIVE " +
+            "AND c.expirationDate >= :yearMonth " +
+            "AND c.balance >= :amount " +
+            "AND c.owner.userId = (SELECT t.owner.userId FROM Card t WHERE t.number = :counterpart)")
+    int debit(@Param("number") String number,
+              @Param("counterpart") String counterpart,
+              @Param("amount") Money amount,
+              @Param("yearMonth") YearMonth yearMonth);
+
+    /**
+     * Зачисляет сумму на карту одним условным UPDATE без загрузки сущности и увеличивает версию карты.
+     * Строка изменяется, только если карта активна, срок ее действия не истек и она принадлежит тому же владельцу,
+     * что и карта-отправитель.
+     * @param number номер карты-получателя
+     * @param counterpart номер карты-отправителя
+     * @param amount сумма зачисления
+     * @param yearMonth текущий месяц
+     * @return количество измененных строк (0 или 1)
+     */
+    @Modifying
+    @Query("UPDATE Card c SET c.balance = c.balance + :amount, c.version = c.version + 1 " +
+            "WHERE c.number = :number " +
+            "AND c.status = com.example.bankcards.enums.CardStatusEnum.ACTIVE " +
+            "AND c.expirationDate >= :yearMonth " +
+            "AND c.owner.userId = (SELECT f.owner.userId FROM Card f WHERE f.number = :counterpart)")
+    int credit(@Param("number") String number,
+               @Param("counterpart") String counterpart,
+               @Param("amount") Money amount,
+               @Param("yearMonth") YearMonth yearMonth);
+
+    /**
+     * Возвращает порцию номеров карт после указанного номера в порядке номера.
+     * Читает только первичный ключ.
+     * @param after номер, после которого начинается порция
+     * @param limit размер порции
+     * @return номера карт
+     */
+    @Query(value = "SELECT number FROM cards WHERE number > :after ORDER BY number LIMIT :limit",
+            nativeQuery = true)
+    List<String> findNumbersAfter(@Param("after") String after, @Param("limit") int limit);
+
+    /**
+     * Находит номер карты, которым заканчивается диапазон из offset + 1 карт после указанного номера.
+     * Читает только первичный ключ.
+     * @param after номер, после которого начинается диапазон
+     * @param offset число карт диапазона минус одна
+     * @return optional номера последней карты диапазона, пустой, если карт после номера меньше
+     */
+    @Query(value = "SELECT number FROM cards WHERE number > :after ORDER BY number LIMIT 1 OFFSET :offset",
+            nativeQuery = true)
+    Optional<String> findRangeEnd(@Param("after") String after, @Param("offset") int offset);
+
+    /**
+     * Делит карты на указанное число групп равного размера в порядке номера и возвращает последний номер каждой группы.
+     * Читает только первичный ключ за один проход по индексу.
+     * @param partitions число групп
+     * @return последние номера групп по возрастанию, групп меньше, если карт меньше, чем групп
+     */
+    @Query(value = "SELECT max(number) FROM (" +
+            "SELECT number, ntile(:partitions) OVER (ORDER BY number) AS bucket FROM cards" +
+            ") buckets GROUP BY bucket ORDER BY 1",
+            nativeQuery = true)
+    List<String> findPartitionBounds(@Param("partitions") int partitions);
+
+    /**
+     * Находит в диапазоне номеров еще не помеченные карты с истекшим сроком действия на указанную дату.
+     * Условие по статусу совпадает с частичным индексом {@code (expiration_date) WHERE status <> 'EXPIRED'}.
+     * @param from номер, после которого начинается диапазон (не включается)
+     * @param to номер последней карты диапазона (включается)
      * @param yearMonth указанный срок действия
-     * @return список карт
+     * @return номера истекших карт диапазона
      */
-    @Query("SELECT c FROM Card c LEFT JOIN FETCH c.owner WHERE c.expirationDate < :yearMonth")
-    List<Card> findExpiredCards(@Param("yearMonth") YearMonth yearMonth);
+    @Query("SELECT c.number FROM Card c " +
+            "WHERE c.number > :from AND c.number <= :to " +
+            "AND c.status <> com.example.bankcards.enums.CardStatusEnum.EXPIRED " +
+            "AND c.expirationDate < :yearMonth")
+    List<String> findExpiredNumbersInRange(@Param("from") String from,
+                                           @Param("to") String to,
+                                           @Param("yearMonth") YearMonth yearMonth);
+
+    /**
+     * Помечает как EXPIRED карты со сроком действия раньше указанной даты одним UPDATE без загрузки сущностей.
+     * Версия увеличивается, чтобы параллельные изменения тех же карт получили конфликт.
+     * @param numbers номера карт
+     * @param yearMonth указанный срок действия
+     * @return число помеченных карт
+     */
+    @Modifying
+    @Query("UPDATE Card c SET c.status = com.example.bankcards.enums.CardStatusEnum.EXPIRED, c.version = c.version + 1 " +
+            "WHERE c.number IN :numbers " +
+            "AND c.status <> com.example.bankcards.enums.CardStatusEnum.EXPIRED " +
+            "AND c.expirationDate < :yearMonth")
+    int markExpired(@Param("numbers") Collection<String> numbers, @Param("yearMonth") YearMonth yearMonth);
+
+    /**
+     * Резервирует блок номеров счетов для генерации номеров карт.
+     * Последовательность card_number_seq увеличивается на размер блока, значение не откатывается вместе с транзакцией.
+     * @return первый номер счета зарезервированного блока
+     */
+    @Query(value = "SELECT nextval('card_number_seq')", nativeQuery = true)
+    long reserveNumberBlock();
+
+    /**
+     * Находит номера существующих карт среди указанных одним запросом по первичному ключу.
+     * @param numbers номера карт
+     * @return номера найденных карт
+     */
+    @Query("SELECT c.number FROM Card c WHERE c.number IN :numbers")
+    List<String> findExistingNumbers(@Param("numbers") Collection<String> numbers);
 
     /**
      * Проверяет существование карты по номеру.
@@ -42,4 +244,12 @@ public interface CardRepository extends JpaRepository<Card, String> {
      * @return логический тип (true/false)
      */
     boolean existsByNumber(String number);
+
+    /**
+     * Проверяет существование карты по номеру у владельца.
+     * @param number номер карты
+     * @param ownerId id владельца
+     * @return логический тип (true/false)
+     */
+    boolean existsByNumberAndOwnerUserId(String number, UUID ownerId);
 }
\ No newline at end of file
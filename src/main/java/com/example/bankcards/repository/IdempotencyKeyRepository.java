@@ -0,0 +1,63 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Репозиторий ключей идемпотентности.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKey.UserKey> {
+
+    /**
+     * Сохраняет ключ пользователя, если он еще не занят.
+     * При конкурентной вставке того же ключа ожидает завершения чужой транзакции.
+     * @param userId id пользователя
+     * @param key ключ идемпотентности
+     * @param fingerprint отпечаток запроса
+     * @param createdAt время создания
+     * @return 1, если ключ сохранен, 0, если ключ уже существует
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, idempotency_key, fingerprint, created_at) " +
+            "VALUES (:userId, :key, :fingerprint, :createdAt) ON CONFLICT (user_id, idempotency_key) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId,
+                       @Param("key") String key,
+                       @Param("fingerprint") String fingerprint,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Возвращает отпечаток запроса, сохраненный с ключом пользователя.
+     * @param userId id пользователя
+     * @param key ключ идемпотентности
+     * @return отпечаток запроса
+     */
+    @Query("SELECT k.fingerprint FROM IdempotencyKey k WHERE k.userId = :userId AND k.key = :key")
+    Optional<String> findFingerprint(@Param("userId") UUID userId, @Param("key") String key);
+
+    /**
+     * Удаляет порцию ключей, созданных раньше указанного времени, в собственной транзакции.
+     * Порция выбирается по индексу created_at, поэтому удаление не блокирует всю таблицу.
+     * Ключи, сохраненные до появления user_id и не сопоставленные пользователю, удаляются вместе с остальными,
+     * а устаревшие одноименные ключи других пользователей могут попасть в ту же порцию.
+     * @param threshold граница времени создания
+     * @param limit число ключей, по которым выбирается порция
+     * @return число удаленных ключей
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :threshold AND idempotency_key IN (" +
+            "SELECT idempotency_key FROM idempotency_keys WHERE created_at < :threshold LIMIT :limit)",
+            nativeQuery = true)
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold, @Param("limit") int limit);
+}
@@ -0,0 +1,88 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.projection.TransferVolumeView;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий журнала переводов.
+ * Записи только добавляются и читаются: журнал не изменяется и не удаляется через приложение.
+ */
+public interface TransferRepository extends Repository<Transfer, Long> {
+
+    /**
+     * Добавляет запись в журнал.
+     * @param transfer запись о переводе
+     * @return сохраненная запись
+     */
+    Transfer save(Transfer transfer);
+
+    /**
+     * Добавляет записи в журнал одним JDBC-пакетом.
+     * @param transfers записи о переводах
+     * @return сохраненные записи
+     */
+    <S extends Transfer> List<S> saveAll(Iterable<S> transfers);
+
+    /**
+     * Возвращает первую страницу переводов по карте, от новых к старым.
+     * Списания и зачисления читаются отдельными ветками по индексам (card_from, created_at, id)
+     * и (card_to, created_at, id), каждая ветка читает не больше limit строк.
+     * @param number номер карты
+     * @param limit максимальное число записей
+     * @return записи журнала
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM transfers WHERE card_from = :number " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM transfers WHERE card_to = :number AND card_from <> :number " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit)" +
+            ") t ORDER BY t.created_at DESC, t.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Transfer> findFirstPageByCard(@Param("number") String number, @Param("limit") int limit);
+
+    /**
+     * Возвращает страницу переводов по карте, следующую за указанной позицией, от новых к старым.
+     * @param number номер карты
+     * @param createdAt дата создания последней записи предыдущей страницы
+     * @param id id последней записи предыдущей страницы
+     * @param limit максимальное число записей
+     * @return записи журнала
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM transfers WHERE card_from = :number " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM transfers WHERE card_to = :number AND card_from <> :number " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit)" +
+            ") t ORDER BY t.created_at DESC, t.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Transfer> findPageByCardAfter(@Param("number") String number,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       @Param("limit") int limit);
+
+    /**
+     * Возвращает суммы исходящих переводов указанных карт по минутам, начиная с указанного момента.
+     * Используется для восстановления счетчиков лимитов при запуске приложения.
+     * Каждая карта читается диапазоном по индексу (card_from, created_at, id), весь журнал не просматривается.
+     * @param numbers номера карт-отправителей
+     * @param since начало периода
+     * @return суммы переводов по карте-отправителю и минуте
+     */
+    @Query(value = "SELECT card_from AS \"cardFrom\", date_trunc('minute', created_at) AS \"minute\", SUM(amount) AS \"amount\" " +
+            "FROM transfers WHERE card_from IN (:numbers) AND created_at >= :since " +
+            "GROUP BY card_from, date_trunc('minute', created_at)",
+            nativeQuery = true)
+    List<TransferVolumeView> findOutgoingVolumeSince(@Param("numbers") Collection<String> numbers,
+                                                     @Param("since") LocalDateTime since);
+}
\ No newline at end of file
@@ -3,12 +3,15 @@ package com.example.bankcards.repository;
 import com.example.bankcards.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -30,4 +33,20 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * @return optional пользователя
      */
     Optional<User> findByLogin(String login);
+
+    /**
+     * Находит id существующих пользователей среди указанных одним запросом по первичному ключу.
+     * @param ids id пользователей
+     * @return id найденных пользователей
+     */
+    @Query("SELECT u.userId FROM User u WHERE u.userId IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Находит пользователей с логином больше указанного, по возрастанию логина (keyset-пагинация по уникальному индексу).
+     * @param login логин последнего пользователя предыдущей страницы
+     * @param pageable размер страницы
+     * @return срез пользователей без подсчета общего количества
+     */
+    Slice<User> findByLoginGreaterThanOrderByLogin(String login, Pageable pageable);
 } 
\ No newline at end of file
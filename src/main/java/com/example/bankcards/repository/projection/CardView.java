@@ -0,0 +1,42 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.util.CardUtil;
+import com.example.bankcards.util.Money;
+
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Данные карты для чтения по номеру, для кэша чтения и для проверки перевода.
+ * Читается запросом-проекцией без загрузки владельца и его ролей.
+ * Статус хранится в том виде, в каком он записан в БД, статус с учетом срока действия возвращает {@link #onRead(Consumer)}.
+ * @param number номер карты
+ * @param expirationDate срок действия
+ * @param status статус карты
+ * @param balance баланс
+ * @param ownerId id владельца
+ */
+public record CardView(
+        String number,
+        YearMonth expirationDate,
+        CardStatusEnum status,
+        Money balance,
+        UUID ownerId
+) {
+    /**
+     * Возвращает данные карты со статусом на текущий момент (см. {@link CardUtil#effectiveStatus})
+     * и сообщает номер карты, если ее статус в БД устарел.
+     * @param onExpired получатель номера карты, истекший срок которой обнаружен при чтении
+     * @return эти же данные, если статус не изменился, иначе копия со статусом EXPIRED
+     */
+    public CardView onRead(Consumer<String> onExpired) {
+        CardStatusEnum effective = CardUtil.effectiveStatus(status, expirationDate);
+        if (effective == status) {
+            return this;
+        }
+        onExpired.accept(number);
+        return new CardView(number, expirationDate, effective, balance, ownerId);
+    }
+}
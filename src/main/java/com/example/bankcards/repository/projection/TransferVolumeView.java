@@ -0,0 +1,27 @@
+package com.example.bankcards.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Сумма исходящих переводов карты за одну минуту.
+ */
+public interface TransferVolumeView {
+    /**
+     * Номер карты-отправителя.
+     * @return номер карты
+     */
+    String getCardFrom();
+
+    /**
+     * Начало минуты.
+     * @return дата и время с точностью до минуты
+     */
+    LocalDateTime getMinute();
+
+    /**
+     * Сумма переводов за минуту.
+     * @return сумма
+     */
+    BigDecimal getAmount();
+}
@@ -1,15 +1,24 @@
 package com.example.bankcards.scheduler;
 
-import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.CardExpiryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.YearMonth;
+
 /**
  * Планировщик, помечающий карты со истекшим сроком действия как EXPIRED.
  * Запускается раз в месяц в 02:00, если включен свойством card.expired.scheduler.enabled=true.
+ * Может быть включен на нескольких узлах: узлы делят разделы карт между собой через аренду в БД.
+ * С паузой card.expired.resume-interval (по умолчанию равна аренде раздела) узел вызывает тот же запуск повторно:
+ * разделы, аренда которых истекла после падения узла, продолжаются с последнего обработанного номера,
+ * не дожидаясь следующего месяца. Для уже распланированного и завершенного месяца повторный вызов ничего не делает.
+ * Публикует прогресс метриками card.expiry.chunks и card.expiry.cards, длительность запуска — таймером card.expiry.duration.
  */
 @Slf4j
 @Component
@@ -17,19 +26,53 @@ import org.springframework.stereotype.Component;
 @ConditionalOnProperty(name = "card.expired.scheduler.enabled", havingValue = "true")
 public class ExpiredCardScheduler {
 
-    private final CardService cardService;
+    private final CardExpiryService cardExpiryService;
+    private final MeterRegistry meterRegistry;
 
     /** Выполняет обработку просроченных карт. */
     @Scheduled(cron = "0 0 2 1 * ?") // every month 02:00
     public void processExpiredCards() {
+        run("schedule");
+    }
+
+    /** Продолжает незавершенный запуск текущего месяца, в том числе после перезапуска узла. */
+    @Scheduled(initialDelayString = "${card.expired.resume-interval:5m}", fixedDelayString = "${card.expired.resume-interval:5m}")
+    public void resumeExpiredCards() {
+        run("resume");
+    }
+
+    /**
+     * Вызывает запуск за текущий месяц и публикует его длительность.
+     * @param trigger причина запуска (schedule или resume)
+     */
+    private void run(String trigger) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
-            log.info("Starting expired cards processing for current month...");
-            
-            cardService.updateExpiredCards();
-            
-            log.info("Expired cards processing completed successfully");
+            log.debug("Starting expired cards processing for current month ({})...", trigger);
+
+            CardExpiryService.Result result = cardExpiryService.expireCards(YearMonth.now(), this::reportProgress);
+
+            if (result.partitions() > 0 || "schedule".equals(trigger)) {
+                log.info("Expired cards processing ({}) completed successfully: {} partitions, {} chunks, {} cards expired on this node",
+                        trigger, result.partitions(), result.chunks(), result.expiredCards());
+            }
         } catch (Exception e) {
-            log.error("Error during expired cards processing: {}", e.getMessage(), e);
+            outcome = "failure";
+            log.error("Error during expired cards processing ({}): {}", trigger, e.getMessage(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("card.expiry.duration", "outcome", outcome, "trigger", trigger));
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Публикует прогресс после обработки диапазона номеров.
+     * @param progress прогресс запуска
+     */
+    private void reportProgress(CardExpiryService.Progress progress) {
+        meterRegistry.counter("card.expiry.chunks").increment();
+        meterRegistry.counter("card.expiry.cards").increment(progress.expiredInChunk());
+        log.debug("Expired cards partition {} processed up to {}: {} cards expired",
+                progress.partition(), progress.lastNumber(), progress.expiredInChunk());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.CardExpiryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Планировщик, записывающий статус EXPIRED для карт, истекший срок которых обнаружен при чтении.
+ * Запускается на каждом узле с паузой card.expired.write-back.interval, число записанных карт публикует метрикой
+ * card.expiry.write-back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExpiredCardWriteBackScheduler {
+
+    private final CardExpiryService cardExpiryService;
+    private final MeterRegistry meterRegistry;
+
+    /** Записывает статус карт, накопленных в очереди. */
+    @Scheduled(fixedDelayString = "${card.expired.write-back.interval:1s}")
+    public void writeBackExpiredCards() {
+        try {
+            int expired = cardExpiryService.flushWriteBack();
+            if (expired > 0) {
+                meterRegistry.counter("card.expiry.write-back").increment(expired);
+                log.debug("Expired status written back for {} cards", expired);
+            }
+        } catch (Exception e) {
+            log.error("Error during expired cards write-back: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.IdempotencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Планировщик, удаляющий ключи идемпотентности старше transfer.idempotency.ttl.
+ * Запускается с паузой transfer.idempotency.purge.interval, число удаленных ключей публикует метрикой
+ * transfer.idempotency.purged. Запуск на нескольких узлах безопасен: узлы удаляют одни и те же строки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyPurgeScheduler {
+
+    private final IdempotencyService idempotencyService;
+    private final MeterRegistry meterRegistry;
+
+    /** Удаляет устаревшие ключи идемпотентности. */
+    @Scheduled(fixedDelayString = "${transfer.idempotency.purge.interval:1h}")
+    public void purgeExpiredKeys() {
+        try {
+            int purged = idempotencyService.purgeExpired();
+            if (purged > 0) {
+                meterRegistry.counter("transfer.idempotency.purged").increment(purged);
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            log.error("Error during idempotency keys purge: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransferStatusResponse;
+
+import java.util.UUID;
+
+/**
+ * Сервис асинхронных переводов.
+ * Переводы принимаются в очередь и выполняются пакетами в отдельных потоках.
+ */
+public interface AsyncTransferService {
+    /**
+     * Принимает перевод в очередь.
+     * @param request dto перевода (request)
+     * @param userId id пользователя, отправившего перевод
+     * @return состояние принятого перевода (PENDING)
+     */
+    TransferStatusResponse submit(TransferRequest request, UUID userId);
+
+    /**
+     * Возвращает состояние асинхронного перевода.
+     * Состояние известно только узлу, принявшему перевод: PENDING хранится до завершения перевода,
+     * итоговое — пока не вытеснено более новыми (transfer.async.status-cache-size) или до перезапуска узла.
+     * Состояние доступно только пользователю, отправившему перевод, для остальных перевод не найден.
+     * @param transferId id перевода
+     * @param userId id пользователя, запрашивающего состояние
+     * @return состояние перевода
+     */
+    TransferStatusResponse getStatus(UUID transferId, UUID userId);
+}
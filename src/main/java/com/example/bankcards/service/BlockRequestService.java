@@ -1,6 +1,7 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.response.BlockRequestResponse;
+import com.example.bankcards.dto.response.KeysetPage;
 
 import java.util.List;
 import java.util.UUID;
@@ -26,6 +27,23 @@ public interface BlockRequestService {
      */
     List<BlockRequestResponse> getByStatus(String status, Integer page, Integer size);
 
+    /**
+     * Возвращает запросы на блокировку от новых к старым в режиме keyset-пагинации.
+     * @param after курсор последнего запроса предыдущей страницы (пустая строка для первой страницы)
+     * @param size размер страницы
+     * @return страница dto запросов на блокировку (response) с курсором следующей страницы
+     */
+    KeysetPage<BlockRequestResponse> getAllAfter(String after, Integer size);
+
+    /**
+     * Возвращает запросы по статусу от новых к старым в режиме keyset-пагинации.
+     * @param status статус запроса на блокировку
+     * @param after курсор последнего запроса предыдущей страницы (пустая строка для первой страницы)
+     * @param size размер страницы
+     * @return страница dto запросов на блокировку (response) с курсором следующей страницы
+     */
+    KeysetPage<BlockRequestResponse> getByStatusAfter(String status, String after, Integer size);
+
     /**
      * Одобряет запрос на блокировку.
      * @param requestId id запроса на блокировку
@@ -0,0 +1,26 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardBulkErrorResponse;
+import com.example.bankcards.enums.CardBulkFormatEnum;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Сервис массового выпуска карт.
+ */
+public interface CardBulkService {
+    /**
+     * Создает карты из строк запроса по мере их чтения, каждая порция строк фиксируется отдельной транзакцией.
+     * Строка с ошибкой не прерывает выпуск: ошибка передается получателю, остальные карты создаются.
+     * @param reader строки запроса
+     * @param format формат строк
+     * @param errors получатель ошибок строк
+     * @param chunkDone вызывается после передачи получателю ошибок каждой порции, например чтобы сбросить поток ответа
+     * @return число созданных карт
+     * @throws IOException при ошибке чтения запроса
+     */
+    long createAll(BufferedReader reader, CardBulkFormatEnum format, Consumer<CardBulkErrorResponse> errors,
+                    Runnable chunkDone) throws IOException;
+}
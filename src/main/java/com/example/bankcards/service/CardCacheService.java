@@ -0,0 +1,32 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.projection.CardView;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Кэш чтения карт по номеру: статус, баланс, срок действия и владелец.
+ */
+public interface CardCacheService {
+    /**
+     * Возвращает данные карты из кэша, при промахе читает их из базы.
+     * Отсутствующая карта не кэшируется.
+     * @param number номер карты
+     * @return данные карты
+     */
+    CardView get(String number);
+
+    /**
+     * Удаляет карты из кэша после фиксации текущей транзакции.
+     * Вне транзакции карты удаляются сразу.
+     * @param numbers номера измененных карт
+     */
+    void evictAfterCommit(Collection<String> numbers);
+
+    /**
+     * Удаляет из кэша все карты владельца после фиксации текущей транзакции.
+     * @param ownerId id владельца
+     */
+    void evictOwnerAfterCommit(UUID ownerId);
+}
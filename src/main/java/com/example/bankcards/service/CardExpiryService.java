@@ -0,0 +1,51 @@
+package com.example.bankcards.service;
+
+import java.time.YearMonth;
+import java.util.function.Consumer;
+
+/**
+ * Сервис пометки карт с истекшим сроком действия.
+ */
+public interface CardExpiryService {
+    /**
+     * Помечает как EXPIRED карты со сроком действия раньше указанного месяца.
+     * Карты делятся на разделы по диапазонам номеров, узлы захватывают разделы арендой в БД
+     * и обрабатывают их параллельно, каждый диапазон внутри раздела — отдельной короткой транзакцией.
+     * Прерванный раздел продолжается с последнего обработанного номера, завершенный не повторяется.
+     * @param month месяц запуска
+     * @param progress получатель прогресса после каждого диапазона, вызывается из потоков-исполнителей
+     * @return итог работы этого узла
+     */
+    Result expireCards(YearMonth month, Consumer<Progress> progress);
+
+    /**
+     * Ставит в очередь запись статуса EXPIRED для карты, истекший срок которой обнаружен при чтении.
+     * Повторные постановки одной карты до записи объединяются, при переполнении очереди карта остается задаче пометки.
+     * @param number номер карты
+     */
+    void scheduleWriteBack(String number);
+
+    /**
+     * Записывает статус EXPIRED для карт из очереди пакетами, каждый пакет — одной короткой транзакцией.
+     * @return число помеченных карт
+     */
+    int flushWriteBack();
+
+    /**
+     * Прогресс запуска после обработки диапазона номеров.
+     * @param partition номер раздела
+     * @param lastNumber номер последней карты обработанного диапазона
+     * @param expiredInChunk число карт, помеченных в диапазоне
+     */
+    record Progress(int partition, String lastNumber, int expiredInChunk) {
+    }
+
+    /**
+     * Итог работы узла.
+     * @param partitions число разделов, захваченных этим вызовом
+     * @param chunks число диапазонов, обработанных этим вызовом
+     * @param expiredCards число карт, помеченных этим вызовом
+     */
+    record Result(int partitions, int chunks, long expiredCards) {
+    }
+}
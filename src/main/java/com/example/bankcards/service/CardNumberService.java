@@ -0,0 +1,23 @@
+package com.example.bankcards.service;
+
+/**
+ * Сервис выдачи номеров новых карт.
+ */
+public interface CardNumberService {
+    /**
+     * Выдает новый номер карты с контрольной цифрой Луна.
+     * Номера выдаются из памяти узла, к БД обращается только резервирование следующего блока номеров,
+     * поэтому номера разных узлов не пересекаются и не требуют повторных попыток.
+     * Вызывается внутри транзакции на запись.
+     * @return 16-значный номер карты
+     */
+    String generate();
+
+    /**
+     * Проверяет, относится ли номер к BIN, из которого номера выдает {@link #generate()}.
+     * Такой номер нельзя принять от клиента: позже он совпал бы с выданным номером.
+     * @param number номер карты
+     * @return true, если номер начинается с card.number.bin
+     */
+    boolean isGenerated(String number);
+}
@@ -3,8 +3,11 @@ package com.example.bankcards.service;
 import com.example.bankcards.dto.request.CardCreateRequest;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.KeysetPage;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Сервис работы с банковскими картами.
@@ -18,6 +21,38 @@ public interface CardService {
      */
     List<CardResponse> getAll(Integer page, Integer size);
 
+    /**
+     * Возвращает карты владельца с пагинацией, упорядоченные по номеру.
+     * @param ownerId id владельца
+     * @param page номер страницы
+     * @param size размер страницы
+     * @return список dto карт (response)
+     */
+    List<CardResponse> getAllByOwner(UUID ownerId, Integer page, Integer size);
+
+    /**
+     * Возвращает карты по возрастанию номера в режиме keyset-пагинации.
+     * @param after курсор последней карты предыдущей страницы (пустая строка для первой страницы)
+     * @param size размер страницы
+     * @return страница dto карт (response) с курсором следующей страницы
+     */
+    KeysetPage<CardResponse> getAllAfter(String after, Integer size);
+
+    /**
+     * Возвращает карты владельца по возрастанию номера в режиме keyset-пагинации.
+     * @param ownerId id владельца
+     * @param after курсор последней карты предыдущей страницы (пустая строка для первой страницы)
+     * @param size размер страницы
+     * @return страница dto карт (response) с курсором следующей страницы
+     */
+    KeysetPage<CardResponse> getAllByOwnerAfter(UUID ownerId, String after, Integer size);
+
+    /**
+     * Передает все карты в порядке номера по одной, не накапливая их в памяти.
+     * @param consumer получатель dto карт (response)
+     */
+    void exportAll(Consumer<CardResponse> consumer);
+
     /**
      * Возвращает карту по номеру.
      * @param number номер карты
@@ -61,9 +96,4 @@ public interface CardService {
      * @return dto баланса карты (response)
      */
     BalanceResponse getBalance(String number);
-
-    /**
-     * Обновляет статусы просроченных карт на EXPIRED.
-     */
-    void updateExpiredCards();
 }
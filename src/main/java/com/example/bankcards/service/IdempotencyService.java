@@ -0,0 +1,25 @@
+package com.example.bankcards.service;
+
+import java.util.UUID;
+
+/**
+ * Сервис ключей идемпотентности.
+ */
+public interface IdempotencyService {
+    /**
+     * Регистрирует ключ идемпотентности пользователя в текущей транзакции.
+     * Ключ становится занятым только после фиксации транзакции, поэтому отклоненный запрос можно повторить.
+     * Ключи разных пользователей не пересекаются.
+     * @param userId id пользователя, отправившего запрос
+     * @param key ключ идемпотентности
+     * @param fingerprint отпечаток запроса
+     * @return true, если запрос нужно выполнить, false, если он уже выполнен с этим ключом
+     */
+    boolean register(UUID userId, String key, String fingerprint);
+
+    /**
+     * Удаляет ключи старше transfer.idempotency.ttl порциями, каждая порция — отдельная транзакция.
+     * @return число удаленных ключей
+     */
+    int purgeExpired();
+}
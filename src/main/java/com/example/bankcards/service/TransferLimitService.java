@@ -0,0 +1,23 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.util.Money;
+
+/**
+ * Сервис лимитов исходящих переводов по карте за скользящий час и сутки.
+ */
+public interface TransferLimitService {
+    /**
+     * Резервирует сумму перевода в лимитах карты-отправителя.
+     * Если транзакция перевода откатывается, резерв снимается.
+     * @param number номер карты-отправителя
+     * @param status статус карты-отправителя
+     * @param amount сумма перевода
+     */
+    void reserve(String number, CardStatusEnum status, Money amount);
+
+    /**
+     * Восстанавливает счетчики лимитов по журналу переводов за последние сутки.
+     */
+    void rebuild();
+}
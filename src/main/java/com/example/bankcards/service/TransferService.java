@@ -1,6 +1,12 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.KeysetPage;
+import com.example.bankcards.dto.response.TransferResponse;
+import com.example.bankcards.dto.response.TransferResultResponse;
+
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Сервис переводов средств между картами.
@@ -11,4 +17,41 @@ public interface TransferService {
      * @param request dto перевода (request)
      */
     void transfer(TransferRequest request);
+
+    /**
+     * Выполняет перевод между картами не более одного раза для одного ключа идемпотентности пользователя.
+     * Повтор с тем же ключом и теми же данными завершается успешно без повторного списания.
+     * @param request dto перевода (request)
+     * @param userId id пользователя, отправившего перевод (ключ идемпотентности действует в его пределах)
+     * @param idempotencyKey ключ идемпотентности (может быть null)
+     */
+    void transfer(TransferRequest request, UUID userId, String idempotencyKey);
+
+    /**
+     * Выполняет пакет переводов в одной транзакции.
+     * Отклоненный перевод не прерывает обработку остальных.
+     * @param requests список dto переводов (request)
+     * @return результаты переводов в порядке следования в пакете
+     */
+    List<TransferResultResponse> transferBatch(List<TransferRequest> requests);
+
+    /**
+     * Возвращает страницу истории переводов по карте, от новых к старым.
+     * @param number номер карты
+     * @param after курсор последнего перевода предыдущей страницы (null или пустая строка для первой страницы)
+     * @param size размер страницы
+     * @return страница dto переводов (response) с курсором следующей страницы
+     */
+    KeysetPage<TransferResponse> getHistory(String number, String after, Integer size);
+
+    /**
+     * Возвращает страницу истории переводов по карте владельца, от новых к старым.
+     * Карта другого пользователя считается не найденной.
+     * @param ownerId id владельца
+     * @param number номер карты
+     * @param after курсор последнего перевода предыдущей страницы (null или пустая строка для первой страницы)
+     * @param size размер страницы
+     * @return страница dto переводов (response) с курсором следующей страницы
+     */
+    KeysetPage<TransferResponse> getHistoryByOwner(UUID ownerId, String number, String after, Integer size);
 }
@@ -2,6 +2,7 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.UserCreateRequest;
 import com.example.bankcards.dto.request.UserPasswordUpdateRequest;
+import com.example.bankcards.dto.response.KeysetPage;
 import com.example.bankcards.dto.response.UserResponse;
 
 import java.util.List;
@@ -19,6 +20,14 @@ public interface UserService {
      */
     List<UserResponse> getAll(Integer page, Integer size);
 
+    /**
+     * Возвращает пользователей по возрастанию логина в режиме keyset-пагинации.
+     * @param after курсор последнего пользователя предыдущей страницы (пустая строка для первой страницы)
+     * @param size размер страницы
+     * @return страница dto пользователей (response) с курсором следующей страницы
+     */
+    KeysetPage<UserResponse> getAllAfter(String after, Integer size);
+
     /**
      * Возвращает пользователя по идентификатору.
      * @param userId id пользователя
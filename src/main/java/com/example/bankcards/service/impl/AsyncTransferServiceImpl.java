@@ -0,0 +1,247 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.AsyncTransferProperties;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransferResultResponse;
+import com.example.bankcards.dto.response.TransferStatusResponse;
+import com.example.bankcards.exception.custom.AsyncTransferUnavailableException;
+import com.example.bankcards.exception.custom.TransferNotFoundException;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.TransferService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Реализация {@link com.example.bankcards.service.AsyncTransferService}.
+ * <p>
+ * Переводы распределяются по шардам по меньшему из номеров двух карт, поэтому встречные переводы
+ * одной пары карт попадают к одному писателю и не конкурируют за их строки из разных транзакций.
+ * Карта, участвующая в переводах с разными картами, по-прежнему может оказаться в нескольких шардах.
+ * У каждого шарда своя ограниченная очередь и один поток-писатель, который забирает накопившиеся переводы
+ * пакетом и выполняет их одной транзакцией {@link TransferService#transferBatch}.
+ * <p>
+ * Состояния переводов хранятся только в памяти узла, принявшего перевод, и теряются при его перезапуске.
+ * Перевод в состоянии PENDING не вытесняется: таких переводов не больше, чем помещается в очереди
+ * и пакеты писателей. Завершенные состояния держатся в LRU-отображении на transfer.async.status-cache-size
+ * записей и со временем вытесняются, после чего результат перевода виден только в истории карты.
+ * Вместе с состоянием хранится id отправившего пользователя, другим пользователям состояние не выдается.
+ * <p>
+ * Прием перевода и остановка сервиса разделены блокировкой: {@link #stop()} выключает прием только
+ * после того, как завершились все начатые {@link #submit}, поэтому писатели не выходят, пока в очереди
+ * остается принятый перевод.
+ */
+@Slf4j
+@Service
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final TransferService transferService;
+    private final TransferMapper transferMapper;
+    private final AsyncTransferProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<UUID, OwnedStatus> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, OwnedStatus> statuses;
+    private final List<BlockingQueue<QueuedTransfer>> shards = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+
+    public AsyncTransferServiceImpl(TransferService transferService,
+                                    TransferMapper transferMapper,
+                                    AsyncTransferProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.transferService = transferService;
+        this.transferMapper = transferMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.statuses = Collections.synchronizedMap(lruMap(properties.getStatusCacheSize()));
+    }
+
+    /** Запускает потоки-писатели, если асинхронный режим включен. */
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        for (int shard = 0; shard < properties.getShards(); shard++) {
+            BlockingQueue<QueuedTransfer> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            meterRegistry.gauge("transfer.async.queue.size", Tags.of("shard", String.valueOf(shard)), queue, BlockingQueue::size);
+            shards.add(queue);
+
+            Thread writer = new Thread(() -> drain(queue), "transfer-writer-" + shard);
+            writers.add(writer);
+            writer.start();
+        }
+    }
+
+    /**
+     * Останавливает прием переводов и дожидается выполнения уже принятых.
+     * @throws InterruptedException если ожидание прервано
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // waits for submits in progress, so every accepted transfer is in a queue before the writers may exit
+        acceptLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TransferStatusResponse submit(TransferRequest request, UUID userId) {
+        acceptLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new AsyncTransferUnavailableException("Async transfers are disabled");
+            }
+
+            UUID transferId = UUID.randomUUID();
+            TransferStatusResponse status = transferMapper.toPendingStatus(transferId);
+            pending.put(transferId, new OwnedStatus(userId, status));
+
+            if (!shardOf(request).offer(new QueuedTransfer(transferId, userId, request))) {
+                pending.remove(transferId);
+                throw new AsyncTransferUnavailableException("Transfer queue is full, please retry later");
+            }
+            return status;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TransferStatusResponse getStatus(UUID transferId, UUID userId) {
+        // the final status is stored before the pending one is removed, so one of the lookups finds it
+        OwnedStatus status = pending.get(transferId);
+        if (status == null) {
+            status = statuses.get(transferId);
+        }
+        // a transfer of another user is reported as missing, so its id cannot be probed
+        if (status == null || !status.userId().equals(userId)) {
+            throw new TransferNotFoundException("Transfer not found with id: " + transferId);
+        }
+        return status.status();
+    }
+
+    /**
+     * Цикл потока-писателя: ждет первый перевод и забирает вместе с ним все накопившиеся.
+     * После остановки сервиса дорабатывает оставшиеся в очереди переводы.
+     * @param queue очередь шарда
+     */
+    private void drain(BlockingQueue<QueuedTransfer> queue) {
+        List<QueuedTransfer> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedTransfer first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Выполняет пакет переводов одной транзакцией и сохраняет их состояния.
+     * @param batch пакет переводов
+     */
+    private void commit(List<QueuedTransfer> batch) {
+        List<TransferRequest> requests = batch.stream().map(QueuedTransfer::request).toList();
+        try {
+            List<TransferResultResponse> results = transferService.transferBatch(requests);
+            for (TransferResultResponse result : results) {
+                QueuedTransfer transfer = batch.get(result.index());
+                complete(transfer, transferMapper.toStatusResponse(transfer.transferId(), result));
+            }
+        } catch (RuntimeException e) {
+            log.error("Async transfer batch of {} failed: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(transfer -> complete(transfer,
+                    transferMapper.toFailedStatus(transfer.transferId(), "Transfer batch failed, please retry")));
+        }
+    }
+
+    /**
+     * Переносит перевод из ожидающих в завершенные.
+     * @param transfer перевод
+     * @param status итоговое состояние перевода
+     */
+    private void complete(QueuedTransfer transfer, TransferStatusResponse status) {
+        statuses.put(transfer.transferId(), new OwnedStatus(transfer.userId(), status));
+        pending.remove(transfer.transferId());
+    }
+
+    /**
+     * Определяет очередь шарда по меньшему из номеров карт перевода.
+     * @param request dto перевода (request)
+     * @return очередь шарда
+     */
+    private BlockingQueue<QueuedTransfer> shardOf(TransferRequest request) {
+        String number = request.numberFrom().compareTo(request.numberTo()) <= 0 ? request.numberFrom() : request.numberTo();
+        return shards.get(Math.floorMod(number.hashCode(), shards.size()));
+    }
+
+    /**
+     * Создает LinkedHashMap, вытесняющую давно не использованные записи.
+     * @param maxSize максимальный размер
+     * @return LRU-отображение
+     */
+    private static Map<UUID, OwnedStatus> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, OwnedStatus> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Перевод в очереди шарда.
+     * @param transferId id перевода
+     * @param userId id пользователя, отправившего перевод
+     * @param request dto перевода (request)
+     */
+    private record QueuedTransfer(UUID transferId, UUID userId, TransferRequest request) {
+    }
+
+    /**
+     * Состояние перевода вместе с отправившим его пользователем.
+     * @param userId id пользователя, отправившего перевод
+     * @param status состояние перевода
+     */
+    private record OwnedStatus(UUID userId, TransferStatusResponse status) {
+    }
+}
@@ -1,15 +1,18 @@
 package com.example.bankcards.service.impl;
 
 import com.example.bankcards.dto.response.BlockRequestResponse;
+import com.example.bankcards.dto.response.KeysetPage;
 import com.example.bankcards.entity.BlockRequest;
 import com.example.bankcards.enums.BlockRequestStatusEnum;
 import com.example.bankcards.exception.custom.BlockRequestNotFoundException;
 import com.example.bankcards.mapper.BlockRequestMapper;
 import com.example.bankcards.repository.BlockRequestRepository;
 import com.example.bankcards.service.BlockRequestService;
+import com.example.bankcards.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -52,6 +55,38 @@ public class BlockRequestServiceImpl implements BlockRequestService {
                 .collect(Collectors.toList());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<BlockRequestResponse> getAllAfter(String after, Integer size) {
+        PageRequest pageRequest = PageRequest.of(0, size);
+        Slice<BlockRequest> blockRequests;
+        if (after.isEmpty()) {
+            blockRequests = blockRequestRepository.findFirstSliceWithRequester(pageRequest);
+        } else {
+            CursorUtil.UuidPosition position = CursorUtil.decodeUuid(after);
+            blockRequests = blockRequestRepository.findSliceWithRequesterAfter(position.createdAt(), position.id(), pageRequest);
+        }
+        return toKeysetPage(blockRequests);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<BlockRequestResponse> getByStatusAfter(String status, String after, Integer size) {
+        PageRequest pageRequest = PageRequest.of(0, size);
+        BlockRequestStatusEnum requestStatus = BlockRequestStatusEnum.valueOf(status.toUpperCase());
+        Slice<BlockRequest> blockRequests;
+        if (after.isEmpty()) {
+            blockRequests = blockRequestRepository.findFirstSliceByStatusWithRequester(requestStatus, pageRequest);
+        } else {
+            CursorUtil.UuidPosition position = CursorUtil.decodeUuid(after);
+            blockRequests = blockRequestRepository.findSliceByStatusWithRequesterAfter(
+                    requestStatus, position.createdAt(), position.id(), pageRequest);
+        }
+        return toKeysetPage(blockRequests);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void approve(UUID requestId) {
@@ -72,6 +107,21 @@ public class BlockRequestServiceImpl implements BlockRequestService {
         blockRequestRepository.save(blockRequest);
     }
 
+    /**
+     * Преобразует срез запросов в страницу с курсором по позиции последнего запроса.
+     * @param blockRequests срез запросов на блокировку
+     * @return страница dto запросов на блокировку (response)
+     */
+    private KeysetPage<BlockRequestResponse> toKeysetPage(Slice<BlockRequest> blockRequests) {
+        List<BlockRequest> content = blockRequests.getContent();
+        String nextCursor = null;
+        if (blockRequests.hasNext()) {
+            BlockRequest last = content.get(content.size() - 1);
+            nextCursor = CursorUtil.encode(last.getRequestDate(), last.getRequestId());
+        }
+        return new KeysetPage<>(content.stream().map(blockRequestMapper::toResponse).toList(), nextCursor);
+    }
+
     /**
      * Проверка наличия в базе и получение запроса блокировки по id.
      * @param requestId id запроса блокировки
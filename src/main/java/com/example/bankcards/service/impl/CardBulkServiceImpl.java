@@ -0,0 +1,236 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.CardBulkProperties;
+import com.example.bankcards.dto.request.CardCreateRequest;
+import com.example.bankcards.dto.response.CardBulkErrorResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.enums.CardBulkFormatEnum;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardBulkService;
+import com.example.bankcards.service.CardNumberService;
+import com.example.bankcards.util.CardUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация {@link com.example.bankcards.service.CardBulkService}.
+ * <p>
+ * Строки читаются по одной и копятся порциями по card.bulk.chunk-size, в памяти держится только текущая порция.
+ * Для порции владельцы и уже занятые номера проверяются двумя запросами IN по первичным ключам,
+ * владелец подставляется ссылкой без загрузки, карты вставляются JDBC-пакетами по card.bulk.batch-size
+ * (hibernate.jdbc.batch_size на время транзакции порции). Каждая порция — отдельная транзакция,
+ * ошибки строк порции передаются получателю после ее фиксации.
+ * Строкам без номера номер выдает {@link CardNumberService} из зарезервированного блока, без запроса на каждую карту.
+ */
+@Slf4j
+@Service
+public class CardBulkServiceImpl implements CardBulkService {
+
+    private static final String CSV_HEADER = "number";
+
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final CardMapper cardMapper;
+    private final CardNumberService cardNumberService;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final CardBulkProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public CardBulkServiceImpl(CardRepository cardRepository,
+                               UserRepository userRepository,
+                               CardMapper cardMapper,
+                               CardNumberService cardNumberService,
+                               ObjectMapper objectMapper,
+                               Validator validator,
+                               EntityManager entityManager,
+                               CardBulkProperties properties,
+                               PlatformTransactionManager transactionManager) {
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.cardMapper = cardMapper;
+        this.cardNumberService = cardNumberService;
+        this.requestReader = objectMapper.readerFor(CardCreateRequest.class);
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long createAll(BufferedReader reader, CardBulkFormatEnum format, Consumer<CardBulkErrorResponse> errors,
+                          Runnable chunkDone) throws IOException {
+        List<Line> chunk = new ArrayList<>(properties.getChunkSize());
+        long created = 0;
+        long lineNo = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNo++;
+            if (text.isBlank() || (lineNo == 1 && format == CardBulkFormatEnum.CSV && isHeader(text))) {
+                continue;
+            }
+
+            CardCreateRequest request;
+            try {
+                request = parse(text, format);
+            } catch (IllegalArgumentException e) {
+                errors.accept(new CardBulkErrorResponse(lineNo, e.getMessage()));
+                continue;
+            }
+            Set<ConstraintViolation<CardCreateRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                errors.accept(new CardBulkErrorResponse(lineNo, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+                continue;
+            }
+
+            chunk.add(new Line(lineNo, request));
+            if (chunk.size() == properties.getChunkSize()) {
+                created += flush(chunk, errors, chunkDone);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += flush(chunk, errors, chunkDone);
+        }
+        return created;
+    }
+
+    /**
+     * Создает карты порции одной транзакцией и передает получателю ошибки ее строк.
+     * @param chunk строки порции, очищается после обработки
+     * @param errors получатель ошибок строк
+     * @param chunkDone вызывается после передачи ошибок порции
+     * @return число созданных карт
+     */
+    private int flush(List<Line> chunk, Consumer<CardBulkErrorResponse> errors, Runnable chunkDone) {
+        List<CardBulkErrorResponse> rejected = new ArrayList<>();
+        int created;
+        try {
+            created = transactionTemplate.execute(status -> insert(chunk, rejected));
+        } catch (DataIntegrityViolationException e) {
+            // a number was taken by a concurrent insert after the check, so the whole chunk is rolled back
+            log.warn("Bulk card chunk of {} lines rolled back: {}", chunk.size(), e.getMessage());
+            Set<Long> checked = rejected.stream().map(CardBulkErrorResponse::line).collect(Collectors.toSet());
+            chunk.stream()
+                    .filter(line -> !checked.contains(line.number()))
+                    .map(line -> new CardBulkErrorResponse(line.number(), "Card was not created because of a concurrent card number conflict, resend the line"))
+                    .forEach(rejected::add);
+            created = 0;
+        }
+        rejected.forEach(errors);
+        chunkDone.run();
+        chunk.clear();
+        return created;
+    }
+
+    /**
+     * Проверяет владельцев и номера карт порции и вставляет прошедшие проверку карты пакетами.
+     * @param chunk строки порции
+     * @param rejected список, в который добавляются ошибки строк
+     * @return число вставленных карт
+     */
+    private int insert(List<Line> chunk, List<CardBulkErrorResponse> rejected) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(properties.getBatchSize());
+
+        Set<UUID> owners = userRepository.findExistingIds(chunk.stream()
+                .map(line -> line.request().ownerId())
+                .collect(Collectors.toSet()));
+        List<String> numbers = chunk.stream()
+                .map(line -> line.request().number() != null ? line.request().number() : cardNumberService.generate())
+                .toList();
+        Set<String> taken = new HashSet<>(cardRepository.findExistingNumbers(numbers));
+
+        List<Card> cards = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Line line = chunk.get(i);
+            CardCreateRequest request = line.request();
+            String number = numbers.get(i);
+            if (!owners.contains(request.ownerId())) {
+                rejected.add(new CardBulkErrorResponse(line.number(), "User not found with id: " + request.ownerId()));
+            } else if (request.number() != null && cardNumberService.isGenerated(number)) {
+                rejected.add(new CardBulkErrorResponse(line.number(),
+                        "Card number is reserved for generated cards: " + CardUtil.maskCardNumber(number)));
+            } else if (!taken.add(number)) {
+                rejected.add(new CardBulkErrorResponse(line.number(),
+                        "Card already exists with number: " + CardUtil.maskCardNumber(number)));
+            } else {
+                // the owner is a reference, so persisting the card does not load the user
+                cards.add(cardMapper.toEntity(request, number, userRepository.getReferenceById(request.ownerId())));
+            }
+        }
+        cardRepository.saveAll(cards);
+        return cards.size();
+    }
+
+    /**
+     * Разбирает строку запроса.
+     * @param text строка
+     * @param format формат строки
+     * @return dto карты (request)
+     * @throws IllegalArgumentException если строка не разбирается
+     */
+    private CardCreateRequest parse(String text, CardBulkFormatEnum format) {
+        if (format == CardBulkFormatEnum.NDJSON) {
+            try {
+                return requestReader.readValue(text);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        String[] fields = text.split(",", -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected 3 CSV fields: number,expirationDate,ownerId");
+        }
+        try {
+            return new CardCreateRequest(
+                    fields[0].isBlank() ? null : fields[0].trim(),
+                    fields[1].isBlank() ? null : YearMonth.parse(fields[1].trim()),
+                    fields[2].isBlank() ? null : UUID.fromString(fields[2].trim()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid expiration date: " + fields[1].trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid owner id: " + fields[2].trim());
+        }
+    }
+
+    private static boolean isHeader(String text) {
+        return text.trim().regionMatches(true, 0, CSV_HEADER, 0, CSV_HEADER.length());
+    }
+
+    /**
+     * Разобранная строка запроса.
+     * @param number номер строки
+     * @param request dto карты (request)
+     */
+    private record Line(long number, CardCreateRequest request) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.CardCacheProperties;
+import com.example.bankcards.exception.custom.CardNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.service.CardCacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Реализация {@link com.example.bankcards.service.CardCacheService}.
+ * <p>
+ * Данные карт хранятся в ограниченном кэше Caffeine со временем жизни записи card.cache.ttl.
+ * Промах читает карту запросом-проекцией без владельца и ролей.
+ * Изменяющие операции удаляют карты из кэша после фиксации транзакции, поэтому
+ * следующий запрос не может закэшировать незафиксированное или уже устаревшее состояние.
+ * Попадания, промахи и вытеснения публикуются в метриках cache.* с тегом cache=cards.
+ * Если кэш выключен, каждый запрос читает карту из базы.
+ */
+@Service
+public class CardCacheServiceImpl implements CardCacheService {
+
+    private static final String CACHE_NAME = "cards";
+
+    private final CardRepository cardRepository;
+    private final CardCacheProperties properties;
+    private final Cache<String, CardView> cache;
+
+    public CardCacheServiceImpl(CardRepository cardRepository,
+                                CardCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CardView get(String number) {
+        if (!properties.isEnabled()) {
+            return load(number);
+        }
+        // the loader throws for a missing card, so nothing is stored for it
+        return cache.get(number, this::load);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void evictAfterCommit(Collection<String> numbers) {
+        if (!properties.isEnabled() || numbers.isEmpty()) {
+            return;
+        }
+        List<String> evicted = List.copyOf(numbers);
+        afterCommit(() -> cache.invalidateAll(evicted));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void evictOwnerAfterCommit(UUID ownerId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // owner removal is rare, so a scan of the cache is cheaper than a query for the owner's card numbers
+        afterCommit(() -> cache.asMap().values().removeIf(card -> card.ownerId().equals(ownerId)));
+    }
+
+    /**
+     * Выполняет действие после фиксации текущей транзакции, вне транзакции — сразу.
+     * @param action действие
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Читает данные карты из базы.
+     * @param number номер карты
+     * @return данные карты
+     */
+    private CardView load(String number) {
+        return cardRepository.findViewByNumber(number)
+                .orElseThrow(() -> new CardNotFoundException("Card not found with number: " + number));
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.CardExpiryProperties;
+import com.example.bankcards.entity.CardExpiryPartition;
+import com.example.bankcards.repository.CardExpiryPartitionRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardCacheService;
+import com.example.bankcards.service.CardExpiryService;
+import com.example.bankcards.util.YearMonthConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Реализация {@link com.example.bankcards.service.CardExpiryService}.
+ * <p>
+ * Первый узел, начавший запуск за месяц, делит карты на card.expired.partitions разделов равного размера по номеру
+ * и сохраняет их в card_expiry_partitions. Узлы запускают по card.expired.workers исполнителей, каждый исполнитель
+ * захватывает свободный раздел через SELECT ... FOR UPDATE SKIP LOCKED, записывает себе аренду и обрабатывает раздел,
+ * пока свободные разделы не закончатся.
+ * Раздел проходится диапазонами по первичному ключу: истекшие карты диапазона помечаются одним UPDATE,
+ * и в той же транзакции продлевается аренда и сдвигается последний обработанный номер.
+ * Помеченные карты удаляются из кэша чтения после фиксации своего диапазона.
+ * <p>
+ * Карты, истекший срок которых обнаружен при чтении, собираются в множество (повторы объединяются)
+ * и помечаются пакетами по card.expired.write-back.batch-size, поэтому задача за месяц находит в основном уже помеченные карты.
+ */
+@Slf4j
+@Service
+public class CardExpiryServiceImpl implements CardExpiryService {
+
+    // card numbers are 16 digits, so no number sorts after this one
+    private static final String LAST_NUMBER = "9999999999999999";
+
+    private static final YearMonthConverter MONTHS = new YearMonthConverter();
+
+    private final CardRepository cardRepository;
+    private final CardExpiryPartitionRepository partitionRepository;
+    private final CardCacheService cardCacheService;
+    private final CardExpiryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<String> pendingWriteBack = ConcurrentHashMap.newKeySet();
+
+    public CardExpiryServiceImpl(CardRepository cardRepository,
+                                 CardExpiryPartitionRepository partitionRepository,
+                                 CardCacheService cardCacheService,
+                                 CardExpiryProperties properties,
+                                 PlatformTransactionManager transactionManager) {
+        this.cardRepository = cardRepository;
+        this.partitionRepository = partitionRepository;
+        this.cardCacheService = cardCacheService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Result expireCards(YearMonth month, Consumer<Progress> progress) {
+        transactionTemplate.executeWithoutResult(status -> planRun(month));
+
+        int workers = properties.getWorkers();
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers,
+                task -> new Thread(task, "card-expiry-worker-" + threads.incrementAndGet()));
+        try {
+            List<Future<Result>> futures = new ArrayList<>(workers);
+            for (int worker = 0; worker < workers; worker++) {
+                String leaseOwner = nodeId + "/" + worker;
+                futures.add(pool.submit(() -> work(month, leaseOwner, progress)));
+            }
+
+            Result total = new Result(0, 0, 0);
+            for (Future<Result> future : futures) {
+                total = sum(total, await(future));
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void scheduleWriteBack(String number) {
+        // the size check is racy, so the queue may overshoot by the number of concurrent readers
+        if (pendingWriteBack.size() < properties.getWriteBack().getMaxPending()) {
+            pendingWriteBack.add(number);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int flushWriteBack() {
+        int expired = 0;
+        while (!pendingWriteBack.isEmpty()) {
+            List<String> batch = drainWriteBack(properties.getWriteBack().getBatchSize());
+            // a failed batch is not retried: the next read queues the card again, the monthly run covers the rest
+            expired += transactionTemplate.execute(status -> {
+                int marked = cardRepository.markExpired(batch, YearMonth.now());
+                cardCacheService.evictAfterCommit(batch);
+                return marked;
+            });
+        }
+        return expired;
+    }
+
+    /**
+     * Делит запуск за месяц на разделы, если этого еще не сделал другой узел. Разделы прошлых запусков удаляются.
+     * @param month месяц запуска
+     */
+    private void planRun(YearMonth month) {
+        if (partitionRepository.existsByRunMonth(month)) {
+            return;
+        }
+        partitionRepository.deleteOtherRuns(month);
+
+        List<String> bounds = cardRepository.findPartitionBounds(properties.getPartitions());
+        int partitions = Math.max(1, bounds.size());
+        LocalDateTime now = LocalDateTime.now();
+        String from = "";
+        for (int partitionNo = 0; partitionNo < partitions; partitionNo++) {
+            // the last partition is open-ended, so cards created after planning are still covered
+            String to = partitionNo == partitions - 1 ? LAST_NUMBER : bounds.get(partitionNo);
+            int inserted = partitionRepository.insertIfAbsent(
+                    partitionNo, MONTHS.convertToDatabaseColumn(month), from, to, now);
+            if (inserted == 0) {
+                // another node has planned this run concurrently
+                return;
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Захватывает и обрабатывает разделы, пока свободные разделы не закончатся.
+     * @param month месяц запуска
+     * @param leaseOwner исполнитель
+     * @param progress получатель прогресса
+     * @return итог работы исполнителя
+     */
+    private Result work(YearMonth month, String leaseOwner, Consumer<Progress> progress) {
+        Result total = new Result(0, 0, 0);
+        Optional<CardExpiryPartition> claimed = claim(month, leaseOwner);
+        while (claimed.isPresent()) {
+            total = sum(total, expirePartition(claimed.get(), leaseOwner, progress));
+            claimed = claim(month, leaseOwner);
+        }
+        return total;
+    }
+
+    /**
+     * Захватывает первый незавершенный раздел без действующей аренды.
+     * @param month месяц запуска
+     * @param leaseOwner исполнитель
+     * @return optional захваченного раздела, пустой, если свободных разделов нет
+     */
+    private Optional<CardExpiryPartition> claim(YearMonth month, String leaseOwner) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<CardExpiryPartition> claimable = partitionRepository.findClaimable(month, now, PageRequest.of(0, 1));
+            if (claimable.isEmpty()) {
+                return Optional.empty();
+            }
+
+            CardExpiryPartition partition = claimable.get(0);
+            partition.setLeaseOwner(leaseOwner);
+            partition.setLeaseUntil(now.plus(properties.getLeaseDuration()));
+            return Optional.of(partitionRepository.save(partition));
+        });
+    }
+
+    /**
+     * Обрабатывает раздел диапазонами номеров, начиная с последнего обработанного номера.
+     * Если аренду раздела перехватил другой исполнитель, обработка раздела прекращается.
+     * @param partition захваченный раздел
+     * @param leaseOwner исполнитель
+     * @param progress получатель прогресса
+     * @return итог обработки раздела
+     */
+    private Result expirePartition(CardExpiryPartition partition, String leaseOwner, Consumer<Progress> progress) {
+        String after = partition.getLastNumber();
+        int chunks = 0;
+        long expired = 0;
+        boolean completed = false;
+        while (!completed) {
+            String from = after;
+            Optional<Chunk> chunk = transactionTemplate.execute(status -> expireChunk(partition, leaseOwner, from));
+            if (chunk.isEmpty()) {
+                log.warn("Lease on card expiry partition {} was taken over, leaving it at {}", partition.getPartitionNo(), after);
+                break;
+            }
+
+            chunks++;
+            expired += chunk.get().expired();
+            progress.accept(new Progress(partition.getPartitionNo(), chunk.get().lastNumber(), chunk.get().expired()));
+            after = chunk.get().lastNumber();
+            completed = chunk.get().last();
+        }
+        return new Result(1, chunks, expired);
+    }
+
+    /**
+     * Продлевает аренду раздела, помечает истекшие карты в следующем диапазоне номеров и сдвигает раздел.
+     * @param partition захваченный раздел
+     * @param leaseOwner исполнитель
+     * @param after номер, после которого начинается диапазон
+     * @return optional результата обработки диапазона, пустой, если аренда раздела потеряна
+     */
+    private Optional<Chunk> expireChunk(CardExpiryPartition partition, String leaseOwner, String after) {
+        LocalDateTime now = LocalDateTime.now();
+        int partitionNo = partition.getPartitionNo();
+        if (partitionRepository.renewLease(partitionNo, leaseOwner, now.plus(properties.getLeaseDuration())) == 0) {
+            return Optional.empty();
+        }
+
+        Optional<String> end = cardRepository.findRangeEnd(after, properties.getChunkSize() - 1);
+        boolean last = end.isEmpty() || end.get().compareTo(partition.getRangeTo()) >= 0;
+        String to = last ? partition.getRangeTo() : end.get();
+
+        int expired = 0;
+        List<String> numbers = cardRepository.findExpiredNumbersInRange(after, to, partition.getRunMonth());
+        if (!numbers.isEmpty()) {
+            expired = cardRepository.markExpired(numbers, partition.getRunMonth());
+            cardCacheService.evictAfterCommit(numbers);
+        }
+
+        partitionRepository.advance(partitionNo, to, expired, now);
+        if (last) {
+            partitionRepository.complete(partitionNo, now);
+        }
+        return Optional.of(new Chunk(to, expired, last));
+    }
+
+    /**
+     * Забирает из очереди записи не больше указанного числа карт.
+     * @param limit максимальное число карт
+     * @return номера карт
+     */
+    private List<String> drainWriteBack(int limit) {
+        List<String> batch = new ArrayList<>(Math.min(limit, pendingWriteBack.size()));
+        Iterator<String> iterator = pendingWriteBack.iterator();
+        while (iterator.hasNext() && batch.size() < limit) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    /**
+     * Ожидает завершения исполнителя.
+     * @param future результат исполнителя
+     * @return итог работы исполнителя
+     */
+    private Result await(Future<Result> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for card expiry workers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Card expiry worker failed", e.getCause());
+        }
+    }
+
+    private static Result sum(Result left, Result right) {
+        return new Result(left.partitions() + right.partitions(),
+                left.chunks() + right.chunks(),
+                left.expiredCards() + right.expiredCards());
+    }
+
+    /**
+     * Результат обработки одного диапазона номеров.
+     * @param lastNumber номер последней карты диапазона
+     * @param expired число помеченных карт
+     * @param last true, если диапазон последний в разделе
+     */
+    private record Chunk(String lastNumber, int expired, boolean last) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.CardNumberProperties;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardNumberService;
+import com.example.bankcards.util.CardUtil;
+import org.springframework.stereotype.Service;
+
+/**
+ * Реализация {@link com.example.bankcards.service.CardNumberService}.
+ * <p>
+ * Номер карты — card.number.bin, девятизначный номер счета и контрольная цифра Луна.
+ * Номера счетов резервируются блоками по {@link #BLOCK_SIZE}: nextval последовательности card_number_seq
+ * возвращает начало блока, следующие номера блока выдаются из памяти. Номера неиспользованного остатка блока
+ * после перезапуска узла пропускаются.
+ */
+@Service
+public class CardNumberServiceImpl implements CardNumberService {
+
+    /** Размер блока номеров, должен совпадать с INCREMENT BY последовательности card_number_seq. */
+    public static final int BLOCK_SIZE = 1000;
+
+    private static final long ACCOUNT_LIMIT = 1_000_000_000L;
+
+    private final CardRepository cardRepository;
+    private final String bin;
+    private long next;
+    private long end;
+
+    public CardNumberServiceImpl(CardRepository cardRepository, CardNumberProperties properties) {
+        if (properties.getBin() == null || !properties.getBin().matches("\\d{6}")) {
+            throw new IllegalArgumentException("card.number.bin must be 6 digits");
+        }
+        this.cardRepository = cardRepository;
+        this.bin = properties.getBin();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized String generate() {
+        if (next == end) {
+            reserveBlock();
+        }
+        String payload = bin + String.format("%09d", next++);
+        return payload + CardUtil.luhnCheckDigit(payload);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isGenerated(String number) {
+        return number.startsWith(bin);
+    }
+
+    /**
+     * Резервирует следующий блок номеров счетов.
+     * @throws IllegalStateException если номера счетов для BIN закончились
+     */
+    private void reserveBlock() {
+        long start = cardRepository.reserveNumberBlock();
+        if (start + BLOCK_SIZE > ACCOUNT_LIMIT) {
+            throw new IllegalStateException("Card numbers for BIN " + bin + " are exhausted");
+        }
+        next = start;
+        end = start + BLOCK_SIZE;
+    }
+}
@@ -1,34 +1,52 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.aspect.RetryOnConflict;
 import com.example.bankcards.dto.request.CardCreateRequest;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.KeysetPage;
 import com.example.bankcards.entity.BlockRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.enums.BlockRequestStatusEnum;
 import com.example.bankcards.enums.CardStatusEnum;
 import com.example.bankcards.exception.custom.CardNotFoundException;
+import com.example.bankcards.exception.custom.CardNumberReservedException;
 import com.example.bankcards.exception.custom.UserNotFoundException;
 import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.repository.BlockRequestRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.service.CardCacheService;
+import com.example.bankcards.service.CardExpiryService;
+import com.example.bankcards.service.CardNumberService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.util.CardUtil;
+import com.example.bankcards.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.YearMonth;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Реализация {@link com.example.bankcards.service.CardService}.
+ * Чтение карт строит {@link CardView} запросами с конструкторным выражением: сущности карт и владельцев
+ * не загружаются, поэтому нет снимков для dirty checking и роста контекста персистентности.
+ * Выгрузка всех карт читает их данные серверным курсором.
+ * Карта и баланс по номеру читаются через {@link CardCacheService}, изменяющие операции удаляют карту из кэша.
+ * Карта с истекшим сроком отдается со статусом EXPIRED сразу, а запись статуса в БД ставится в очередь {@link CardExpiryService}.
+ * Номер карты без номера в запросе выдает {@link CardNumberService}.
  */
 @Service
 @RequiredArgsConstructor
@@ -39,14 +57,18 @@ public class CardServiceImpl implements CardService {
     private final UserRepository userRepository;
     private final BlockRequestRepository blockRequestRepository;
     private final CardMapper cardMapper;
+    private final CardCacheService cardCacheService;
+    private final CardExpiryService cardExpiryService;
+    private final CardNumberService cardNumberService;
 
     /** {@inheritDoc} */
     @Override
     @Transactional(readOnly = true)
     public List<CardResponse> getAll(Integer page, Integer size) {
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Card> cards = cardRepository.findAll(pageRequest);
+        Page<CardView> cards = cardRepository.findAllViews(pageRequest);
         return cards.getContent().stream()
+                .map(card -> card.onRead(cardExpiryService::scheduleWriteBack))
                 .map(cardMapper::toResponse)
                 .collect(Collectors.toList());
     }
@@ -54,32 +76,78 @@ public class CardServiceImpl implements CardService {
     /** {@inheritDoc} */
     @Override
     @Transactional(readOnly = true)
+    public List<CardResponse> getAllByOwner(UUID ownerId, Integer page, Integer size) {
+        // the (user_id, number) index serves both the filter and the order
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Page<CardView> cards = cardRepository.findViewsByOwner(ownerId, pageRequest);
+        return cards.getContent().stream()
+                .map(card -> card.onRead(cardExpiryService::scheduleWriteBack))
+                .map(cardMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<CardResponse> getAllAfter(String after, Integer size) {
+        Slice<CardView> cards = cardRepository.findViewsAfter(CursorUtil.decodeKey(after), PageRequest.of(0, size));
+        return toKeysetPage(cards);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<CardResponse> getAllByOwnerAfter(UUID ownerId, String after, Integer size) {
+        Slice<CardView> cards = cardRepository.findViewsByOwnerAfter(ownerId, CursorUtil.decodeKey(after), PageRequest.of(0, size));
+        return toKeysetPage(cards);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<CardResponse> consumer) {
+        // projections are not managed, so memory does not grow with the table
+        try (Stream<CardView> cards = cardRepository.streamAllViews()) {
+            cards.map(card -> card.onRead(cardExpiryService::scheduleWriteBack)).map(cardMapper::toResponse).forEach(consumer);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public CardResponse getByNumber(String number) {
-        Card card = requireByNumber(number);
-        return cardMapper.toResponse(card);
+        // a cache hit does not need a transaction or a connection
+        return cardMapper.toResponse(cardCacheService.get(number).onRead(cardExpiryService::scheduleWriteBack));
     }
 
     /** {@inheritDoc} */
     @Override
     public void create(CardCreateRequest request) {
+        if (request.number() != null && cardNumberService.isGenerated(request.number())) {
+            throw new CardNumberReservedException("Card number is reserved for generated cards: " + CardUtil.maskCardNumber(request.number()));
+        }
         User owner = userRepository.findById(request.ownerId())
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + request.ownerId()));
         
-        Card card = cardMapper.toEntity(request, owner);
+        String number = request.number() != null ? request.number() : cardNumberService.generate();
+        Card card = cardMapper.toEntity(request, number, owner);
         cardRepository.save(card);
     }
 
     /** {@inheritDoc} */
     @Override
+    @RetryOnConflict
     public void block(String number) {
         Card card = requireByNumber(number);
         
         card.setStatus(CardStatusEnum.BLOCKED);
         cardRepository.save(card);
+        cardCacheService.evictAfterCommit(List.of(number));
     }
 
     /** {@inheritDoc} */
     @Override
+    @RetryOnConflict
     public void activate(String number) {
         Card card = requireByNumber(number);
         
@@ -90,6 +158,7 @@ public class CardServiceImpl implements CardService {
         }
         
         cardRepository.save(card);
+        cardCacheService.evictAfterCommit(List.of(number));
     }
 
     /** {@inheritDoc} */
@@ -99,6 +168,7 @@ public class CardServiceImpl implements CardService {
             throw new CardNotFoundException("Card not found with number: " + number);
         }
         cardRepository.deleteById(number);
+        cardCacheService.evictAfterCommit(List.of(number));
     }
 
     /** {@inheritDoc} */
@@ -119,20 +189,23 @@ public class CardServiceImpl implements CardService {
 
     /** {@inheritDoc} */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public BalanceResponse getBalance(String number) {
-        Card card = requireByNumber(number);
-        return cardMapper.toBalanceResponse(card);
+        return cardMapper.toBalanceResponse(cardCacheService.get(number));
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public void updateExpiredCards() {
-        List<Card> expiredCards = cardRepository.findExpiredCards(YearMonth.now());
-        expiredCards.forEach(card -> {
-            card.setStatus(CardStatusEnum.EXPIRED);
-            cardRepository.save(card);
-        });
+    /**
+     * Преобразует срез карт в страницу с курсором по номеру последней карты.
+     * @param cards срез карт
+     * @return страница dto карт (response)
+     */
+    private KeysetPage<CardResponse> toKeysetPage(Slice<CardView> cards) {
+        List<CardView> content = cards.getContent();
+        String nextCursor = cards.hasNext() ? CursorUtil.encodeKey(content.get(content.size() - 1).number()) : null;
+        return new KeysetPage<>(content.stream()
+                .map(card -> card.onRead(cardExpiryService::scheduleWriteBack))
+                .map(cardMapper::toResponse)
+                .toList(), nextCursor);
     }
 
     /**
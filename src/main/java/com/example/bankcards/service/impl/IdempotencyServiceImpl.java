@@ -0,0 +1,152 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.IdempotencyProperties;
+import com.example.bankcards.entity.IdempotencyKey;
+import com.example.bankcards.exception.custom.IdempotencyKeyConflictException;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.service.IdempotencyService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Реализация {@link com.example.bankcards.service.IdempotencyService}.
+ * <p>
+ * Ключи хранятся в таблице idempotency_keys по паре (пользователь, ключ) и записываются в транзакции самого запроса.
+ * Перед таблицей стоит ограниченный LRU-кэш зафиксированных ключей, поэтому повтор
+ * недавнего запроса обслуживается без обращения к базе данных. Запись кэша действует не дольше ttl ключа,
+ * после чего ключ проверяется по таблице, откуда его удаляет {@link #purgeExpired()}.
+ */
+@Service
+@Transactional
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+    private final Map<IdempotencyKey.UserKey, CachedKey> committedKeys;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  IdempotencyProperties idempotencyProperties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.properties = idempotencyProperties;
+        this.committedKeys = Collections.synchronizedMap(lruMap(idempotencyProperties.getCacheSize()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean register(UUID userId, String key, String fingerprint) {
+        IdempotencyKey.UserKey userKey = new IdempotencyKey.UserKey(userId, key);
+        String digest = digest(fingerprint);
+        LocalDateTime now = LocalDateTime.now();
+
+        // hot retries are answered from the cache of committed keys
+        CachedKey cached = committedKeys.get(userKey);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            requireSameRequest(cached.digest(), digest);
+            return false;
+        }
+
+        // a concurrent insert of the same key waits here until the other transaction ends
+        if (idempotencyKeyRepository.insertIfAbsent(userId, key, digest, now) == 1) {
+            rememberAfterCommit(userKey, new CachedKey(digest, now.plus(properties.getTtl())));
+            return true;
+        }
+
+        String stored = idempotencyKeyRepository.findFingerprint(userId, key)
+                .orElseThrow(() -> new IdempotencyKeyConflictException("Idempotency key is being processed, please retry"));
+        requireSameRequest(stored, digest);
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int purgeExpired() {
+        LocalDateTime threshold = LocalDateTime.now().minus(properties.getTtl());
+        int batchSize = properties.getPurge().getBatchSize();
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteCreatedBefore(threshold, batchSize);
+            purged += deleted;
+        } while (deleted >= batchSize);
+        return purged;
+    }
+
+    /**
+     * Проверяет, что ключ повторно используется для того же запроса.
+     * @param stored отпечаток запроса, сохраненный с ключом
+     * @param digest отпечаток текущего запроса
+     */
+    private void requireSameRequest(String stored, String digest) {
+        if (!stored.equals(digest)) {
+            throw new IdempotencyKeyConflictException("Idempotency key was already used for a different request");
+        }
+    }
+
+    /**
+     * Добавляет ключ в кэш после фиксации транзакции, в которой он был записан.
+     * @param userKey ключ идемпотентности пользователя
+     * @param cached отпечаток запроса и срок действия ключа
+     */
+    private void rememberAfterCommit(IdempotencyKey.UserKey userKey, CachedKey cached) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committedKeys.put(userKey, cached);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committedKeys.put(userKey, cached);
+            }
+        });
+    }
+
+    /**
+     * Вычисляет SHA-256 отпечатка запроса.
+     * @param fingerprint отпечаток запроса
+     * @return hex-представление хэша (64 символа)
+     */
+    private static String digest(String fingerprint) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Создает LinkedHashMap, вытесняющую давно не использованные ключи.
+     * @param maxSize максимальный размер
+     * @return LRU-отображение
+     */
+    private static Map<IdempotencyKey.UserKey, CachedKey> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdempotencyKey.UserKey, CachedKey> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Зафиксированный ключ в кэше.
+     * @param digest отпечаток запроса
+     * @param expiresAt время, после которого запись кэша не используется
+     */
+    private record CachedKey(String digest, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.TransferLimitProperties;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.exception.custom.TransferLimitExceededException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.projection.TransferVolumeView;
+import com.example.bankcards.service.TransferLimitService;
+import com.example.bankcards.util.Money;
+import com.example.bankcards.util.SlidingWindowCounter;
+import com.example.bankcards.util.StripedLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Реализация {@link com.example.bankcards.service.TransferLimitService}.
+ * <p>
+ * Для каждой карты в памяти хранятся суммы исходящих переводов за скользящий час (60 корзин по минуте)
+ * и сутки (96 корзин по 15 минут). Проверка и резервирование выполняются под блокировкой полосы
+ * {@link StripedLock} и не обращаются к базе данных. При запуске счетчики восстанавливаются
+ * по журналу переводов за последние сутки: карты читаются порциями по первичному ключу, журнал каждой порции —
+ * по индексу (card_from, created_at, id). Счетчики общие только для одного экземпляра приложения.
+ */
+@Slf4j
+@Service
+public class TransferLimitServiceImpl implements TransferLimitService {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+    private static final Duration DAY = Duration.ofDays(1);
+
+    private final TransferRepository transferRepository;
+    private final CardRepository cardRepository;
+    private final TransferLimitProperties properties;
+    private final Map<CardStatusEnum, WindowLimits> limits = new EnumMap<>(CardStatusEnum.class);
+    private final StripedLock locks;
+    private final Map<String, CardUsage> usages = new ConcurrentHashMap<>();
+
+    public TransferLimitServiceImpl(TransferRepository transferRepository, CardRepository cardRepository,
+                                    TransferLimitProperties properties) {
+        this.transferRepository = transferRepository;
+        this.cardRepository = cardRepository;
+        this.properties = properties;
+        this.locks = new StripedLock(properties.getStripes());
+        properties.getStatuses().forEach((status, limit) -> limits.put(status, new WindowLimits(
+                toMinorUnits(limit.getHourly()), toMinorUnits(limit.getDaily()))));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reserve(String number, CardStatusEnum status, Money amount) {
+        WindowLimits limit = limits.get(status);
+        if (!properties.isEnabled() || limit == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        ReentrantLock lock = locks.stripeFor(number);
+        lock.lock();
+        try {
+            CardUsage usage = usages.computeIfAbsent(number, key -> new CardUsage());
+            requireWithin(usage.hourly, now, amount, limit.hourly(), "Hourly transfer limit exceeded for card");
+            requireWithin(usage.daily, now, amount, limit.daily(), "Daily transfer limit exceeded for card");
+            usage.add(now, amount.minorUnits());
+        } finally {
+            lock.unlock();
+        }
+        releaseOnRollback(number, now, amount.minorUnits());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        // transfers committed while the ledger is read may be counted twice, which only makes limits stricter
+        LocalDateTime since = LocalDateTime.now().minus(DAY);
+        int batchSize = properties.getRebuildBatchSize();
+        List<String> numbers = cardRepository.findNumbersAfter("", batchSize);
+        while (!numbers.isEmpty()) {
+            transferRepository.findOutgoingVolumeSince(numbers, since).forEach(this::restore);
+            numbers = numbers.size() < batchSize
+                    ? List.of()
+                    : cardRepository.findNumbersAfter(numbers.get(numbers.size() - 1), batchSize);
+        }
+        log.info("Transfer limit counters rebuilt for {} cards", usages.size());
+    }
+
+    /**
+     * Добавляет сумму переводов одной минуты из журнала в счетчики карты.
+     * @param volume сумма переводов карты за минуту
+     */
+    private void restore(TransferVolumeView volume) {
+        long time = volume.getMinute().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long amount = Money.of(volume.getAmount()).minorUnits();
+        ReentrantLock lock = locks.stripeFor(volume.getCardFrom());
+        lock.lock();
+        try {
+            usages.computeIfAbsent(volume.getCardFrom(), key -> new CardUsage()).add(time, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет счетчики карт без переводов за последние сутки.
+     */
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        usages.keySet().forEach(number -> {
+            ReentrantLock lock = locks.stripeFor(number);
+            lock.lock();
+            try {
+                CardUsage usage = usages.get(number);
+                if (usage != null && usage.daily.total(now) == 0) {
+                    usages.remove(number);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Проверяет, что сумма за окно вместе с переводом не превышает лимит.
+     * @param counter счетчик окна
+     * @param now текущее время в миллисекундах
+     * @param amount сумма перевода
+     * @param limit лимит в минимальных единицах
+     * @param message сообщение об ошибке
+     */
+    private static void requireWithin(SlidingWindowCounter counter, long now, Money amount, long limit, String message) {
+        if (counter.total(now) > limit - amount.minorUnits()) {
+            throw new TransferLimitExceededException(message);
+        }
+    }
+
+    /**
+     * Переводит лимит из настроек в минимальные единицы.
+     * @param limit лимит (null — без ограничения)
+     * @return лимит в минимальных единицах
+     */
+    private static long toMinorUnits(BigDecimal limit) {
+        return limit == null ? Long.MAX_VALUE : Money.of(limit).minorUnits();
+    }
+
+    /**
+     * Снимает резерв, если транзакция перевода не будет зафиксирована.
+     * @param number номер карты
+     * @param time момент резервирования в миллисекундах
+     * @param amount зарезервированная сумма в минимальных единицах
+     */
+    private void releaseOnRollback(String number, long time, long amount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(number, time, amount);
+                }
+            }
+        });
+    }
+
+    /**
+     * Вычитает сумму из счетчиков карты.
+     * @param number номер карты
+     * @param time момент резервирования в миллисекундах
+     * @param amount сумма в минимальных единицах
+     */
+    private void release(String number, long time, long amount) {
+        ReentrantLock lock = locks.stripeFor(number);
+        lock.lock();
+        try {
+            CardUsage usage = usages.get(number);
+            if (usage != null) {
+                usage.hourly.subtract(time, amount);
+                usage.daily.subtract(time, amount);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Лимиты статуса карты в минимальных единицах.
+     * @param hourly лимит за час
+     * @param daily лимит за сутки
+     */
+    private record WindowLimits(long hourly, long daily) {
+    }
+
+    /**
+     * Счетчики исходящих переводов одной карты.
+     */
+    private static final class CardUsage {
+        private final SlidingWindowCounter hourly = new SlidingWindowCounter(HOUR, 60);
+        private final SlidingWindowCounter daily = new SlidingWindowCounter(DAY, 96);
+
+        private void add(long time, long amount) {
+            hourly.add(time, amount);
+            daily.add(time, amount);
+        }
+    }
+}
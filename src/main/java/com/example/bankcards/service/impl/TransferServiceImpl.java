@@ -1,65 +1,303 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.aspect.RetryOnConflict;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.KeysetPage;
+import com.example.bankcards.dto.response.TransferResponse;
+import com.example.bankcards.dto.response.TransferResultResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.exception.base.ServiceException;
 import com.example.bankcards.exception.custom.CardNotFoundException;
 import com.example.bankcards.exception.custom.TransferException;
+import com.example.bankcards.mapper.TransferMapper;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.service.CardCacheService;
+import com.example.bankcards.service.CardExpiryService;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.TransferLimitService;
 import com.example.bankcards.service.TransferService;
+import com.example.bankcards.util.CursorUtil;
+import com.example.bankcards.util.Money;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Реализация {@link com.example.bankcards.service.TransferService}.
+ * <p>
+ * Перевод выполняется двумя условными UPDATE (списание и зачисление) без загрузки сущностей.
+ * Карты читаются только при отказе, одним запросом-проекцией без владельца и ролей, чтобы сформировать понятное сообщение об ошибке.
+ * Пакет переводов загружает все карты одним запросом и записывает итоговые балансы пакетным UPDATE.
+ * Каждый выполненный перевод добавляется в журнал transfers в той же транзакции.
+ * Сумма перевода резервируется в лимитах карты-отправителя до изменения балансов, откат транзакции снимает резерв.
+ * Суммы хранятся в {@link Money} (long в минимальных единицах), поэтому арифметика перевода не создает BigDecimal.
+ * История по карте читается keyset-пагинацией по позиции (created_at, id), без OFFSET.
+ * Карты с измененным балансом удаляются из кэша чтения после фиксации транзакции.
+ * Карта с истекшим сроком не участвует в переводе, даже если ее статус EXPIRED еще не записан: условные UPDATE
+ * проверяют срок действия, а проверки перевода используют статус с учетом срока и ставят его запись в очередь.
  */
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class TransferServiceImpl implements TransferService {
-    
+
     private final CardRepository cardRepository;
+    private final TransferRepository transferRepository;
+    private final TransferMapper transferMapper;
+    private final IdempotencyService idempotencyService;
+    private final TransferLimitService transferLimitService;
+    private final CardCacheService cardCacheService;
+    private final CardExpiryService cardExpiryService;
 
     /** {@inheritDoc} */
     @Override
+    @RetryOnConflict
     public void transfer(TransferRequest request) {
-        Card fromCard = cardRepository.findByNumber(request.numberFrom())
-                .orElseThrow(() -> new CardNotFoundException("Source card not found: " + request.numberFrom()));
-        
-        Card toCard = cardRepository.findByNumber(request.numberTo())
-                .orElseThrow(() -> new CardNotFoundException("Destination card not found: " + request.numberTo()));
-        
-        // owner check
-        if (!fromCard.getOwner().getUserId().equals(toCard.getOwner().getUserId())) {
-            throw new TransferException("Cards must belong to the same user");
+        // amount check
+        if (!request.amount().isPositive()) {
+            throw new TransferException("Transfer amount must be positive");
         }
-        
-        // status check
-        if (fromCard.getStatus() != CardStatusEnum.ACTIVE) {
-            throw new TransferException("Source card is not active. Status: " + fromCard.getStatus());
+
+        // the conditional debit succeeds only for an active card, so its limits apply
+        transferLimitService.reserve(request.numberFrom(), CardStatusEnum.ACTIVE, request.amount());
+
+        // rows are updated in card number order, so opposite transfers cannot deadlock
+        YearMonth month = YearMonth.now();
+        if (request.numberFrom().compareTo(request.numberTo()) <= 0) {
+            debit(request, month);
+            credit(request, month);
+        } else {
+            credit(request, month);
+            debit(request, month);
         }
-        if (toCard.getStatus() != CardStatusEnum.ACTIVE) {
-            throw new TransferException("Destination card is not active. Status: " + toCard.getStatus());
+
+        transferRepository.save(transferMapper.toEntity(request));
+        cardCacheService.evictAfterCommit(List.of(request.numberFrom(), request.numberTo()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @RetryOnConflict
+    public void transfer(TransferRequest request, UUID userId, String idempotencyKey) {
+        // the key is written in this transaction, so it is released again if the transfer fails
+        if (idempotencyKey != null && !idempotencyService.register(userId, idempotencyKey, fingerprintOf(request))) {
+            return;
         }
+        transfer(request);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @RetryOnConflict
+    public List<TransferResultResponse> transferBatch(List<TransferRequest> requests) {
+        Set<String> numbers = new TreeSet<>();
+        requests.forEach(request -> {
+            numbers.add(request.numberFrom());
+            numbers.add(request.numberTo());
+        });
 
+        // every card of the batch is locked by one IN query, ordered by card number
+        Map<String, Card> cards = cardRepository.findAllByNumberForUpdate(numbers).stream()
+                .collect(Collectors.toMap(Card::getNumber, Function.identity()));
+
+        List<TransferResultResponse> results = new ArrayList<>(requests.size());
+        Set<Card> changedCards = new LinkedHashSet<>();
+        List<Transfer> ledger = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            TransferRequest request = requests.get(index);
+            try {
+                Card fromCard = requireLoaded(cards, request.numberFrom(), "Source card not found: ");
+                Card toCard = requireLoaded(cards, request.numberTo(), "Destination card not found: ");
+                validate(transferMapper.toCardView(fromCard).onRead(cardExpiryService::scheduleWriteBack),
+                        transferMapper.toCardView(toCard).onRead(cardExpiryService::scheduleWriteBack),
+                        request.amount());
+                transferLimitService.reserve(fromCard.getNumber(), fromCard.getStatus(), request.amount());
+
+                fromCard.setBalance(fromCard.getBalance().minus(request.amount()));
+                toCard.setBalance(toCard.getBalance().plus(request.amount()));
+                changedCards.add(fromCard);
+                changedCards.add(toCard);
+                ledger.add(transferMapper.toEntity(request));
+
+                results.add(transferMapper.toCompletedResult(index));
+            } catch (ServiceException e) {
+                results.add(transferMapper.toFailedResult(index, e.getMessage()));
+            }
+        }
+
+        // only the net balance of each card is written, as one JDBC batch
+        cardRepository.saveAll(changedCards);
+        transferRepository.saveAll(ledger);
+        cardCacheService.evictAfterCommit(changedCards.stream().map(Card::getNumber).toList());
+        return results;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<TransferResponse> getHistory(String number, String after, Integer size) {
+        if (!cardRepository.existsByNumber(number)) {
+            throw new CardNotFoundException("Card not found with number: " + number);
+        }
+        return history(number, after, size);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<TransferResponse> getHistoryByOwner(UUID ownerId, String number, String after, Integer size) {
+        // a card of another user is reported as missing, so its existence is not disclosed
+        if (!cardRepository.existsByNumberAndOwnerUserId(number, ownerId)) {
+            throw new CardNotFoundException("Card not found with number: " + number);
+        }
+        return history(number, after, size);
+    }
+
+    /**
+     * Читает страницу истории переводов по карте.
+     * @param number номер карты
+     * @param after курсор последнего перевода предыдущей страницы (null или пустая строка для первой страницы)
+     * @param size размер страницы
+     * @return страница dto переводов (response) с курсором следующей страницы
+     */
+    private KeysetPage<TransferResponse> history(String number, String after, Integer size) {
+        // one extra row tells whether a next page exists
+        List<Transfer> transfers;
+        if (after == null || after.isEmpty()) {
+            transfers = transferRepository.findFirstPageByCard(number, size + 1);
+        } else {
+            CursorUtil.Position position = CursorUtil.decode(after);
+            transfers = transferRepository.findPageByCardAfter(number, position.createdAt(), position.id(), size + 1);
+        }
+
+        List<Transfer> page = transfers.subList(0, Math.min(size, transfers.size()));
+        String nextCursor = null;
+        if (transfers.size() > size) {
+            Transfer last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return new KeysetPage<>(page.stream().map(transferMapper::toResponse).toList(), nextCursor);
+    }
+
+    /**
+     * Списывает сумму с карты-отправителя.
+     * @param request dto перевода (request)
+     * @param month текущий месяц
+     */
+    private void debit(TransferRequest request, YearMonth month) {
+        int updated = cardRepository.debit(request.numberFrom(), request.numberTo(), request.amount(), month);
+        if (updated == 0) {
+            throw rejectionOf(request);
+        }
+    }
+
+    /**
+     * Зачисляет сумму на карту-получателя.
+     * @param request dto перевода (request)
+     * @param month текущий месяц
+     */
+    private void credit(TransferRequest request, YearMonth month) {
+        int updated = cardRepository.credit(request.numberTo(), request.numberFrom(), request.amount(), month);
+        if (updated == 0) {
+            throw rejectionOf(request);
+        }
+    }
+
+    /**
+     * Определяет причину, по которой условный UPDATE не изменил ни одной строки.
+     * Если карты проходят проверки, их состояние изменилось между UPDATE и чтением — это конфликт, перевод повторяется.
+     * @param request dto перевода (request)
+     * @return исключение с описанием причины отказа
+     */
+    private RuntimeException rejectionOf(TransferRequest request) {
+        Map<String, CardView> cards = cardRepository
+                .findViewsByNumberIn(List.of(request.numberFrom(), request.numberTo())).stream()
+                .map(card -> card.onRead(cardExpiryService::scheduleWriteBack))
+                .collect(Collectors.toMap(CardView::number, Function.identity()));
+
+        CardView fromCard = cards.get(request.numberFrom());
+        if (fromCard == null) {
+            throw new CardNotFoundException("Source card not found: " + request.numberFrom());
+        }
+
+        CardView toCard = cards.get(request.numberTo());
+        if (toCard == null) {
+            throw new CardNotFoundException("Destination card not found: " + request.numberTo());
+        }
+
+        validate(fromCard, toCard, request.amount());
+        return new OptimisticLockingFailureException("Card state changed during transfer, please retry");
+    }
+
+    /**
+     * Проверяет, что перевод между картами допустим.
+     * @param fromCard карта-отправитель
+     * @param toCard карта-получатель
+     * @param amount сумма перевода
+     */
+    private void validate(CardView fromCard, CardView toCard, Money amount) {
         // amount check
-        BigDecimal amount = request.amount();
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositive()) {
             throw new TransferException("Transfer amount must be positive");
         }
 
+        // owner check
+        if (!fromCard.ownerId().equals(toCard.ownerId())) {
+            throw new TransferException("Cards must belong to the same user");
+        }
+
+        // status check
+        if (fromCard.status() != CardStatusEnum.ACTIVE) {
+            throw new TransferException("Source card is not active. Status: " + fromCard.status());
+        }
+        if (toCard.status() != CardStatusEnum.ACTIVE) {
+            throw new TransferException("Destination card is not active. Status: " + toCard.status());
+        }
+
         // balance check
-        if (fromCard.getBalance().compareTo(amount) < 0) {
+        if (fromCard.balance().isLessThan(amount)) {
             throw new TransferException("Insufficient funds on source card");
         }
+    }
+
+    /**
+     * Формирует отпечаток перевода для сравнения повторных запросов с одним ключом.
+     * @param request dto перевода (request)
+     * @return отпечаток перевода
+     */
+    private String fingerprintOf(TransferRequest request) {
+        return request.numberFrom() + ":" + request.numberTo() + ":" + request.amount().minorUnits();
+    }
 
-        fromCard.setBalance(fromCard.getBalance().subtract(amount));
-        toCard.setBalance(toCard.getBalance().add(amount));
-        
-        cardRepository.save(fromCard);
-        cardRepository.save(toCard);
+    /**
+     * Получение карты из уже загруженных карт пакета.
+     * @param cards карты пакета по номерам
+     * @param number номер карты
+     * @param notFoundMessage начало сообщения об ошибке
+     * @return сущность карты
+     */
+    private Card requireLoaded(Map<String, Card> cards, String number, String notFoundMessage) {
+        Card card = cards.get(number);
+        if (card == null) {
+            throw new CardNotFoundException(notFoundMessage + number);
+        }
+        return card;
     }
-} 
\ No newline at end of file
+}
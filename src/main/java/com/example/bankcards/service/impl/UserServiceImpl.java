@@ -2,6 +2,7 @@ package com.example.bankcards.service.impl;
 
 import com.example.bankcards.dto.request.UserCreateRequest;
 import com.example.bankcards.dto.request.UserPasswordUpdateRequest;
+import com.example.bankcards.dto.response.KeysetPage;
 import com.example.bankcards.dto.response.UserResponse;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
@@ -12,10 +13,13 @@ import com.example.bankcards.exception.custom.UserNotFoundException;
 import com.example.bankcards.mapper.UserMapper;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardCacheService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -36,6 +40,7 @@ public class UserServiceImpl implements UserService {
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final CardCacheService cardCacheService;
 
     /** {@inheritDoc} */
     @Override
@@ -48,6 +53,16 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<UserResponse> getAllAfter(String after, Integer size) {
+        Slice<User> users = userRepository.findByLoginGreaterThanOrderByLogin(CursorUtil.decodeKey(after), PageRequest.of(0, size));
+        List<User> content = users.getContent();
+        String nextCursor = users.hasNext() ? CursorUtil.encodeKey(content.get(content.size() - 1).getLogin()) : null;
+        return new KeysetPage<>(content.stream().map(userMapper::toResponse).toList(), nextCursor);
+    }
+
     /** {@inheritDoc} */
     @Override
     @Transactional(readOnly = true)
@@ -94,5 +109,7 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException("User not found with id: " + userId);
         }
         userRepository.deleteById(userId);
+        // the user's cards are removed by cascade
+        cardCacheService.evictOwnerAfterCommit(userId);
     }
 } 
\ No newline at end of file
@@ -1,11 +1,12 @@
 package com.example.bankcards.util;
 
+import com.example.bankcards.enums.CardStatusEnum;
 import lombok.experimental.UtilityClass;
 
 import java.time.YearMonth;
 
 /**
- * Утилиты для работы с банковскими картами: маскировка номера и проверка срока действия.
+ * Утилиты для работы с банковскими картами: маскировка номера, контрольная цифра, проверка срока действия и статус карты при чтении.
  */
 @UtilityClass
 public class CardUtil {
@@ -21,6 +22,29 @@ public class CardUtil {
         return "************" + cardNumber.substring(cardNumber.length() - 4);
     }
 
+    /**
+     * Вычисляет контрольную цифру Луна для номера карты без последней цифры.
+     * @param payload цифры номера карты без контрольной цифры
+     * @return контрольная цифра (0-9)
+     */
+    public static int luhnCheckDigit(CharSequence payload) {
+        int sum = 0;
+        // the check digit will be appended on the right, so doubling starts from the last payload digit
+        boolean doubled = true;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int digit = payload.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
     /**
      * Возвращает true, если срок действия карты истек на текущий момент.
      * @param expirationDate месяц и год просрочки карты
@@ -29,4 +53,18 @@ public class CardUtil {
     public static boolean isExpired(YearMonth expirationDate) {
         return expirationDate.isBefore(YearMonth.now());
     }
+
+    /**
+     * Возвращает статус карты с учетом срока действия: карта с истекшим сроком считается EXPIRED,
+     * даже если задание пометки истекших карт еще не записало этот статус.
+     * @param status сохраненный статус карты
+     * @param expirationDate месяц и год просрочки карты
+     * @return статус карты на текущий момент
+     */
+    public static CardStatusEnum effectiveStatus(CardStatusEnum status, YearMonth expirationDate) {
+        if (status != CardStatusEnum.EXPIRED && isExpired(expirationDate)) {
+            return CardStatusEnum.EXPIRED;
+        }
+        return status;
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.exception.custom.InvalidCursorException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Утилиты для непрозрачных курсоров keyset-пагинации.
+ * Курсор хранит позицию последней записи страницы (дата создания и id или уникальный ключ сортировки) в виде base64url.
+ */
+@UtilityClass
+public class CursorUtil {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Позиция записи в упорядоченной выборке.
+     * @param createdAt дата создания записи
+     * @param id id записи
+     */
+    public record Position(LocalDateTime createdAt, Long id) {
+    }
+
+    /**
+     * Позиция записи с UUID в упорядоченной выборке.
+     * @param createdAt дата создания записи
+     * @param id id записи
+     */
+    public record UuidPosition(LocalDateTime createdAt, UUID id) {
+    }
+
+    /**
+     * Кодирует позицию записи в курсор.
+     * @param createdAt дата создания записи
+     * @param id id записи
+     * @return курсор
+     */
+    public static String encode(LocalDateTime createdAt, Long id) {
+        return encodeKey(createdAt + SEPARATOR + id);
+    }
+
+    /**
+     * Кодирует позицию записи с UUID в курсор.
+     * @param createdAt дата создания записи
+     * @param id id записи
+     * @return курсор
+     */
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        return encodeKey(createdAt + SEPARATOR + id);
+    }
+
+    /**
+     * Кодирует уникальный ключ сортировки в курсор.
+     * @param key значение ключа последней записи
+     * @return курсор
+     */
+    public static String encodeKey(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор в позицию записи.
+     * @param cursor курсор
+     * @return позиция записи
+     */
+    public static Position decode(String cursor) {
+        try {
+            String[] parts = split(cursor);
+            return new Position(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Декодирует курсор в позицию записи с UUID.
+     * @param cursor курсор
+     * @return позиция записи
+     */
+    public static UuidPosition decodeUuid(String cursor) {
+        try {
+            String[] parts = split(cursor);
+            return new UuidPosition(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Декодирует курсор в ключ сортировки. Пустой курсор соответствует началу выборки.
+     * @param cursor курсор
+     * @return значение ключа последней записи
+     */
+    public static String decodeKey(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Разбирает курсор из двух частей.
+     * @param cursor курсор
+     * @return дата и id записи в виде строк
+     */
+    private static String[] split(String cursor) {
+        String raw = decodeKey(cursor);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        return new String[]{raw.substring(0, separator), raw.substring(separator + 1)};
+    }
+}
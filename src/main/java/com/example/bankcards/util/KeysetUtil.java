@@ -0,0 +1,30 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.response.KeysetPage;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Утилиты для ответов списочных эндпоинтов в режиме keyset-пагинации.
+ * Тело ответа остается списком, курсор следующей страницы передается в заголовке.
+ */
+@UtilityClass
+public class KeysetUtil {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Формирует ответ со списком элементов и курсором следующей страницы в заголовке.
+     * @param page страница списка
+     * @return ответ 200 OK
+     * @param <T> тип элементов
+     */
+    public static <T> ResponseEntity<List<T>> toResponse(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+}
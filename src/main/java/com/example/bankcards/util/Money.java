@@ -0,0 +1,115 @@
+package com.example.bankcards.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежная сумма в минимальных единицах валюты (копейках/центах).
+ * <p>
+ * Значение хранится в {@code long}, поэтому сравнение не создает объектов, а сложение и вычитание
+ * создают только новый {@link Money} без промежуточных {@link BigDecimal}. Переполнение проверяется
+ * через {@link Math#addExact}/{@link Math#subtractExact} и приводит к {@link ArithmeticException}.
+ * @param minorUnits сумма в минимальных единицах
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    /** Число знаков после запятой (совпадает с DECIMAL(19, 2) в базе данных). */
+    public static final int SCALE = 2;
+
+    /** Наибольшее число знаков до запятой: 17 знаков и 2 после запятой помещаются в long. */
+    public static final int MAX_INTEGER_DIGITS = 17;
+
+    /** Нулевая сумма. */
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Создает сумму из минимальных единиц.
+     * @param minorUnits сумма в минимальных единицах
+     * @return сумма
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Создает сумму из десятичного значения.
+     * @param amount сумма с не более чем двумя знаками после запятой
+     * @return сумма
+     * <p>
+     * Размер суммы проверяется до {@link BigDecimal#setScale}: для значения вроде 1e10000000 масштабирование
+     * строит число из миллионов цифр и занимает процессор на секунды.
+     * @throws ArithmeticException если у суммы больше двух знаков после запятой или она не помещается в long
+     */
+    public static Money of(BigDecimal amount) {
+        BigDecimal normalized = amount.scale() > SCALE ? amount.stripTrailingZeros() : amount;
+        if (normalized.scale() > SCALE) {
+            throw new ArithmeticException("amount must have at most " + SCALE + " decimal places");
+        }
+        if (normalized.precision() - normalized.scale() > MAX_INTEGER_DIGITS) {
+            throw new ArithmeticException("amount must have at most " + MAX_INTEGER_DIGITS + " integer digits");
+        }
+        return ofMinor(normalized.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Создает сумму из строки.
+     * @param amount сумма, например "100.50"
+     * @return сумма
+     */
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    /**
+     * Складывает суммы.
+     * @param other слагаемое
+     * @return сумма
+     */
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Вычитает сумму.
+     * @param other вычитаемое
+     * @return разность
+     */
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Возвращает true, если сумма больше нуля.
+     * @return логический тип (true/false)
+     */
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    /**
+     * Возвращает true, если сумма меньше указанной.
+     * @param other сумма для сравнения
+     * @return логический тип (true/false)
+     */
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    /**
+     * Преобразует сумму в десятичное значение с двумя знаками после запятой.
+     * @return десятичное значение
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
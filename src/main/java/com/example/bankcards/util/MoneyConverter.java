@@ -0,0 +1,39 @@
+package com.example.bankcards.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Конвертер JPA для хранения Money в колонке DECIMAL(19, 2) и обратно.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    /**
+     * Преобразует Money в десятичное значение для базы данных.
+     * @param money сумма
+     * @return сумма с двумя знаками после запятой
+     */
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        if (money == null) {
+            return null;
+        }
+        return money.toBigDecimal();
+    }
+
+    /**
+     * Преобразует десятичное значение из базы данных в Money.
+     * @param dbData сумма из бд
+     * @return сумма в минимальных единицах
+     */
+    @Override
+    public Money convertToEntityAttribute(BigDecimal dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        return Money.of(dbData);
+    }
+}
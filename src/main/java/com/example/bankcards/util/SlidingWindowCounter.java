@@ -0,0 +1,99 @@
+package com.example.bankcards.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Сумма значений за скользящее окно времени, разбитое на кольцо корзин фиксированной длины.
+ * <p>
+ * Добавление, вычитание и чтение суммы стоят не больше числа корзин и не зависят от числа записей.
+ * Класс не потокобезопасен, доступ синхронизирует вызывающий код.
+ */
+public class SlidingWindowCounter {
+    private final long bucketMillis;
+    private final long[] amounts;
+    private long head = Long.MIN_VALUE;
+    private long total;
+
+    /**
+     * Создает счетчик.
+     * @param window длина окна
+     * @param buckets число корзин в окне
+     */
+    public SlidingWindowCounter(Duration window, int buckets) {
+        if (buckets <= 0 || window.toMillis() % buckets != 0) {
+            throw new IllegalArgumentException("Window " + window + " cannot be split into " + buckets + " buckets");
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.amounts = new long[buckets];
+    }
+
+    /**
+     * Возвращает сумму значений за окно, заканчивающееся в указанный момент.
+     * @param nowMillis текущее время в миллисекундах
+     * @return сумма за окно
+     */
+    public long total(long nowMillis) {
+        advanceTo(bucketOf(nowMillis));
+        return total;
+    }
+
+    /**
+     * Добавляет значение в корзину указанного момента.
+     * Значения старше окна игнорируются.
+     * @param timeMillis момент значения в миллисекундах
+     * @param amount значение
+     */
+    public void add(long timeMillis, long amount) {
+        long bucket = bucketOf(timeMillis);
+        advanceTo(bucket);
+        if (isInWindow(bucket)) {
+            amounts[slotOf(bucket)] += amount;
+            total = Math.addExact(total, amount);
+        }
+    }
+
+    /**
+     * Вычитает ранее добавленное значение, если его корзина еще не вышла из окна.
+     * @param timeMillis момент, с которым значение было добавлено
+     * @param amount значение
+     */
+    public void subtract(long timeMillis, long amount) {
+        long bucket = bucketOf(timeMillis);
+        if (isInWindow(bucket)) {
+            amounts[slotOf(bucket)] -= amount;
+            total -= amount;
+        }
+    }
+
+    /**
+     * Сдвигает окно вперед до указанной корзины, обнуляя вышедшие из него корзины.
+     * @param bucket номер корзины
+     */
+    private void advanceTo(long bucket) {
+        if (head == Long.MIN_VALUE || bucket - head >= amounts.length) {
+            Arrays.fill(amounts, 0);
+            total = 0;
+            head = bucket;
+            return;
+        }
+        for (long next = head + 1; next <= bucket; next++) {
+            int slot = slotOf(next);
+            total -= amounts[slot];
+            amounts[slot] = 0;
+        }
+        head = Math.max(head, bucket);
+    }
+
+    private boolean isInWindow(long bucket) {
+        return bucket <= head && bucket > head - amounts.length;
+    }
+
+    private long bucketOf(long timeMillis) {
+        return Math.floorDiv(timeMillis, bucketMillis);
+    }
+
+    private int slotOf(long bucket) {
+        return (int) Math.floorMod(bucket, amounts.length);
+    }
+}
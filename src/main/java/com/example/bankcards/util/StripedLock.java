@@ -0,0 +1,73 @@
+package com.example.bankcards.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Таблица блокировок фиксированного размера, индексируемая хэшем ключа.
+ * Разные ключи могут попасть в одну полосу, поэтому память не зависит от числа ключей.
+ */
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Создает таблицу блокировок.
+     * @param stripes число полос (округляется вверх до степени двойки)
+     */
+    public StripedLock(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes count must be positive: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Возвращает блокировки полос для набора ключей.
+     * Полосы упорядочены по индексу, поэтому захват в этом порядке не приводит к взаимной блокировке.
+     * @param keys ключи
+     * @return блокировки полос без повторов, в порядке индексов
+     */
+    public List<ReentrantLock> stripesFor(Collection<String> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        keys.forEach(key -> indexes.add(indexOf(key)));
+        return indexes.stream().map(index -> stripes[index]).toList();
+    }
+
+    /**
+     * Возвращает блокировку полосы для одного ключа.
+     * @param key ключ
+     * @return блокировка полосы
+     */
+    public ReentrantLock stripeFor(String key) {
+        return stripes[indexOf(key)];
+    }
+
+    /**
+     * Возвращает число полос.
+     * @return число полос
+     */
+    public int size() {
+        return stripes.length;
+    }
+
+    /**
+     * Вычисляет индекс полосы для ключа.
+     * @param key ключ
+     * @return индекс полосы
+     */
+    private int indexOf(String key) {
+        int hash = key.hashCode();
+        // spread the high bits, card numbers often differ only in the last digits
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+}
@@ -4,39 +4,37 @@ import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 
 /**
- * Конвертер JPA для хранения YearMonth как строки в БД (yyyy-MM) и обратно.
+ * Конвертер JPA для хранения YearMonth как целого числа yyyymm в БД и обратно.
+ * Числа сравниваются в том же порядке, что и месяцы, поэтому по столбцу работают диапазонные условия и B-tree индекс.
  */
 @Converter(autoApply = true)
-public class YearMonthConverter implements AttributeConverter<YearMonth, String> {
-
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+public class YearMonthConverter implements AttributeConverter<YearMonth, Integer> {
 
     /**
-     * Преобразует YearMonth в строку для базы данных.
+     * Преобразует YearMonth в число yyyymm для базы данных.
      * @param yearMonth месяц и год
-     * @return месяц и год в формате строки
+     * @return месяц и год в формате yyyymm
      */
     @Override
-    public String convertToDatabaseColumn(YearMonth yearMonth) {
+    public Integer convertToDatabaseColumn(YearMonth yearMonth) {
         if (yearMonth == null) {
             return null;
         }
-        return yearMonth.format(FORMATTER);
+        return yearMonth.getYear() * 100 + yearMonth.getMonthValue();
     }
 
     /**
-     * Преобразует строку из базы данных в YearMonth.
-     * @param dbData месяц и год в формате строки из бд
+     * Преобразует число yyyymm из базы данных в YearMonth.
+     * @param dbData месяц и год в формате yyyymm из бд
      * @return месяц и год в формате YearMonth
      */
     @Override
-    public YearMonth convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isEmpty()) {
+    public YearMonth convertToEntityAttribute(Integer dbData) {
+        if (dbData == null) {
             return null;
         }
-        return YearMonth.parse(dbData, FORMATTER);
+        return YearMonth.of(dbData / 100, dbData % 100);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,143 @@
+package com.example.bankcards.aspect;
+
+import com.example.bankcards.config.StripedLockProperties;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.exception.custom.CardLockTimeoutException;
+import com.example.bankcards.service.TransferService;
+import com.example.bankcards.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardLockAspectTest {
+
+    private static final String FIRST_NUMBER = "1234567890123456";
+    private static final String SECOND_NUMBER = "6543210987654321";
+
+    @Mock
+    private TransferService transferService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransferService lockedTransferService;
+
+    @BeforeEach
+    void setUp() {
+        StripedLockProperties properties = new StripedLockProperties();
+        properties.setStripes(64);
+        properties.setTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(transferService);
+        proxyFactory.addAspect(new CardLockAspect(properties, meterRegistry));
+        lockedTransferService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void transfer_ShouldSerializeTransfersOnSameCard() throws Exception {
+        // given
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inside.decrementAndGet();
+            return null;
+        }).when(transferService).transfer(any(TransferRequest.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 16; i++) {
+            TransferRequest request = i % 2 == 0
+                    ? new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1"))
+                    : new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("1"));
+            futures.add(executor.submit(() -> lockedTransferService.transfer(request)));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("transfer.card.lock.wait").tag("outcome", "acquired").timer().count()).isEqualTo(16);
+    }
+
+    @Test
+    void transfer_ShouldThrowException_WhenLockIsNotAcquiredInTime() throws Exception {
+        // given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransferRequest slowRequest = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("10"));
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(transferService).transfer(slowRequest);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> lockedTransferService.transfer(slowRequest));
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // when & then
+        assertThatThrownBy(() -> lockedTransferService.transfer(new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("1"))))
+                .isInstanceOf(CardLockTimeoutException.class);
+        assertThat(meterRegistry.get("transfer.card.lock.wait").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void transferBatch_ShouldNotHoldStripes_WhenBatchIsRunning() throws Exception {
+        // given
+        List<TransferRequest> requests = List.of(
+                new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1")),
+                new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("1"))
+        );
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        }).when(transferService).transferBatch(requests);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> lockedTransferService.transferBatch(requests));
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        TransferRequest request = new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("1"));
+        lockedTransferService.transfer(request);
+
+        // then
+        verify(transferService).transfer(request);
+        assertThat(meterRegistry.get("transfer.card.lock.wait").tag("outcome", "acquired").timer().count()).isEqualTo(1);
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+}
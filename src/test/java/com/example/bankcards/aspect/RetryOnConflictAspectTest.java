@@ -0,0 +1,104 @@
+package com.example.bankcards.aspect;
+
+import com.example.bankcards.config.RetryProperties;
+import com.example.bankcards.exception.custom.TransferException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryOnConflictAspectTest {
+
+    private ConflictingService target;
+    private ConflictingService service;
+
+    @BeforeEach
+    void setUp() {
+        RetryProperties properties = new RetryProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(5));
+
+        target = new ConflictingService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new RetryOnConflictAspect(properties));
+        service = proxyFactory.getProxy();
+    }
+
+    @Test
+    void retry_ShouldRepeatMethod_UntilConflictIsResolved() {
+        // given
+        target.conflicts = 2;
+
+        // when
+        String result = service.update();
+
+        // then
+        assertThat(result).isEqualTo("updated");
+        assertThat(target.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void retry_ShouldRethrowConflict_WhenAttemptsAreExhausted() {
+        // given
+        target.conflicts = 5;
+
+        // when & then
+        assertThatThrownBy(() -> service.update())
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(target.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void retry_ShouldNotRepeatMethod_WhenExceptionIsNotConflict() {
+        // given
+        target.failure = new TransferException("Insufficient funds on source card");
+
+        // when & then
+        assertThatThrownBy(() -> service.update())
+                .isInstanceOf(TransferException.class);
+        assertThat(target.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retry_ShouldNotRepeatMethod_WhenOuterTransactionIsActive() {
+        // given
+        target.conflicts = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when & then
+        try {
+            assertThatThrownBy(() -> service.update())
+                    .isInstanceOf(OptimisticLockingFailureException.class);
+            assertThat(target.calls.get()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    static class ConflictingService {
+        final AtomicInteger calls = new AtomicInteger();
+        int conflicts;
+        RuntimeException failure;
+
+        @RetryOnConflict
+        public String update() {
+            int call = calls.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+            if (call <= conflicts) {
+                throw new OptimisticLockingFailureException("Row was updated by another transaction");
+            }
+            return "updated";
+        }
+    }
+}
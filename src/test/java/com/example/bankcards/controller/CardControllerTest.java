@@ -4,26 +4,45 @@ import com.example.bankcards.controller.impl.CardController;
 import com.example.bankcards.dto.request.CardCreateRequest;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.BlockRequestResponse;
+import com.example.bankcards.dto.response.CardBulkErrorResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.KeysetPage;
+import com.example.bankcards.dto.response.TransferResponse;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardBulkFormatEnum;
+import com.example.bankcards.enums.RoleNameEnum;
 import com.example.bankcards.service.BlockRequestService;
+import com.example.bankcards.service.CardBulkService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransferService;
+import com.example.bankcards.util.KeysetUtil;
+import com.example.bankcards.util.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
+import java.io.BufferedReader;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -43,21 +62,33 @@ class CardControllerTest {
     @MockitoBean
     private CardService cardService;
 
+    @MockitoBean
+    private CardBulkService cardBulkService;
+
     @MockitoBean
     private BlockRequestService blockRequestService;
 
+    @MockitoBean
+    private TransferService transferService;
+
     private final String CARD_NUMBER = "1234567890123456";
     private final UUID USER_ID = UUID.randomUUID();
     private final UUID REQUEST_ID = UUID.randomUUID();
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
-    void getCards_ShouldReturnCardList() throws Exception {
+    void getCards_ShouldReturnAllCards_WhenCallerIsAdmin() throws Exception {
         // given
+        authenticateAs(RoleNameEnum.ROLE_ADMIN);
         CardResponse cardResponse = CardResponse.builder()
                 .number(CARD_NUMBER)
                 .expirationDate(YearMonth.now().plusYears(1))
                 .status("ACTIVE")
-                .balance(BigDecimal.valueOf(1000))
+                .balance(Money.parse("1000"))
                 .ownerId(USER_ID)
                 .build();
 
@@ -69,6 +100,130 @@ class CardControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].number").value(CARD_NUMBER))
                 .andExpect(jsonPath("$[0].ownerId").value(USER_ID.toString()));
+
+        verify(cardService, never()).getAllByOwner(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getCards_ShouldReturnOwnCards_WhenCallerIsUser() throws Exception {
+        // given
+        authenticateAs(RoleNameEnum.ROLE_USER);
+        CardResponse cardResponse = CardResponse.builder()
+                .number(CARD_NUMBER)
+                .expirationDate(YearMonth.now().plusYears(1))
+                .status("ACTIVE")
+                .balance(Money.parse("1000"))
+                .ownerId(USER_ID)
+                .build();
+
+        given(cardService.getAllByOwner(eq(USER_ID), anyInt(), anyInt())).willReturn(List.of(cardResponse));
+
+        // when & then
+        mockMvc.perform(get("/api/cards"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].number").value(CARD_NUMBER));
+
+        verify(cardService, never()).getAll(anyInt(), anyInt());
+    }
+
+    @Test
+    void getCards_ShouldReturnNextCursorHeader_WhenAfterIsPresent() throws Exception {
+        // given
+        authenticateAs(RoleNameEnum.ROLE_USER);
+        CardResponse cardResponse = CardResponse.builder()
+                .number(CARD_NUMBER)
+                .expirationDate(YearMonth.now().plusYears(1))
+                .status("ACTIVE")
+                .balance(Money.parse("1000"))
+                .ownerId(USER_ID)
+                .build();
+
+        given(cardService.getAllByOwnerAfter(USER_ID, "", 1))
+                .willReturn(new KeysetPage<>(List.of(cardResponse), "next-cursor"));
+
+        // when & then
+        mockMvc.perform(get("/api/cards")
+                        .param("after", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetUtil.NEXT_CURSOR_HEADER, "next-cursor"))
+                .andExpect(jsonPath("$[0].number").value(CARD_NUMBER));
+
+        verify(cardService, never()).getAllByOwner(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void exportCards_ShouldStreamOneCardPerLine() throws Exception {
+        // given
+        CardResponse first = CardResponse.builder()
+                .number("************3456")
+                .expirationDate(YearMonth.of(2030, 1))
+                .status("ACTIVE")
+                .balance(Money.parse("10.50"))
+                .ownerId(USER_ID)
+                .build();
+        CardResponse second = CardResponse.builder()
+                .number("************7890")
+                .expirationDate(YearMonth.of(2030, 1))
+                .status("BLOCKED")
+                .balance(Money.ZERO)
+                .ownerId(USER_ID)
+                .build();
+        willAnswer(invocation -> {
+            Consumer<CardResponse> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).given(cardService).exportAll(any());
+
+        // when
+        MvcResult result = mockMvc.perform(get("/api/cards/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString()
+                .split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], CardResponse.class)).isEqualTo(first);
+        assertThat(objectMapper.readValue(lines[1], CardResponse.class)).isEqualTo(second);
+    }
+
+    @Test
+    void createCardsBulk_ShouldStreamLineErrors_WhenBodyIsCsv() throws Exception {
+        // given
+        String body = "number,expirationDate,ownerId\n" + CARD_NUMBER + ",2030-01," + USER_ID + "\n";
+        List<String> received = new ArrayList<>();
+        willAnswer(invocation -> {
+            BufferedReader reader = invocation.getArgument(0);
+            reader.lines().forEach(received::add);
+            Consumer<CardBulkErrorResponse> errors = invocation.getArgument(2);
+            errors.accept(new CardBulkErrorResponse(2L, "User not found with id: " + USER_ID));
+            Runnable chunkDone = invocation.getArgument(3);
+            chunkDone.run();
+            return 0L;
+        }).given(cardBulkService).createAll(any(), eq(CardBulkFormatEnum.CSV), any(), any());
+
+        // when
+        MvcResult result = mockMvc.perform(post("/api/cards/bulk")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString()
+                .split("\n");
+        assertThat(received).containsExactly("number,expirationDate,ownerId", CARD_NUMBER + ",2030-01," + USER_ID);
+        assertThat(lines).hasSize(1);
+        assertThat(objectMapper.readValue(lines[0], CardBulkErrorResponse.class))
+                .isEqualTo(new CardBulkErrorResponse(2L, "User not found with id: " + USER_ID));
     }
 
     @Test
@@ -78,7 +233,7 @@ class CardControllerTest {
                 .number(CARD_NUMBER)
                 .expirationDate(YearMonth.now().plusYears(1))
                 .status("ACTIVE")
-                .balance(BigDecimal.valueOf(1000))
+                .balance(Money.parse("1000"))
                 .ownerId(USER_ID)
                 .build();
 
@@ -142,7 +297,7 @@ class CardControllerTest {
     @Test
     void getCardBalance_ShouldReturnBalance() throws Exception {
         // given
-        BalanceResponse balanceResponse = new BalanceResponse(CARD_NUMBER, BigDecimal.valueOf(1500));
+        BalanceResponse balanceResponse = new BalanceResponse(CARD_NUMBER, Money.parse("1500"));
         given(cardService.getBalance(CARD_NUMBER)).willReturn(balanceResponse);
 
         // when & then
@@ -152,6 +307,54 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.balance").value(1500));
     }
 
+    @Test
+    void getCardTransfers_ShouldReturnPageWithNextCursorHeader_WhenCallerIsAdmin() throws Exception {
+        // given
+        authenticateAs(RoleNameEnum.ROLE_ADMIN);
+        TransferResponse transfer = TransferResponse.builder()
+                .id(51L)
+                .numberFrom("************3456")
+                .numberTo("************4321")
+                .amount(Money.parse("150"))
+                .createdAt(LocalDateTime.of(2025, 6, 1, 12, 30))
+                .build();
+        given(transferService.getHistory(CARD_NUMBER, "cursor", 1)).willReturn(new KeysetPage<>(List.of(transfer), "next-cursor"));
+
+        // when & then
+        mockMvc.perform(get("/api/cards/{number}/transfers", CARD_NUMBER)
+                        .param("after", "cursor")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetUtil.NEXT_CURSOR_HEADER, "next-cursor"))
+                .andExpect(jsonPath("$[0].id").value(51))
+                .andExpect(jsonPath("$[0].numberFrom").value("************3456"));
+    }
+
+    @Test
+    void getCardTransfers_ShouldReadOwnCardHistory_WhenCallerIsUser() throws Exception {
+        // given
+        authenticateAs(RoleNameEnum.ROLE_USER);
+        given(transferService.getHistoryByOwner(USER_ID, CARD_NUMBER, null, 10)).willReturn(new KeysetPage<>(List.of(), null));
+
+        // when & then
+        mockMvc.perform(get("/api/cards/{number}/transfers", CARD_NUMBER))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetUtil.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$").isEmpty());
+
+        then(transferService).should(never()).getHistory(any(), any(), any());
+    }
+
+    @Test
+    void getCardTransfers_ShouldReturnBadRequest_WhenSizeIsTooLarge() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/cards/{number}/transfers", CARD_NUMBER)
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        then(transferService).should(never()).getHistoryByOwner(any(), any(), any(), any());
+    }
+
     @Test
     void blockCardRequest_ShouldCreateBlockRequest() throws Exception {
         // given
@@ -242,4 +445,16 @@ class CardControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.errors").exists());
     }
-}
\ No newline at end of file
+
+    private void authenticateAs(RoleNameEnum roleName) {
+        Role role = new Role();
+        role.setName(roleName);
+        User user = User.builder()
+                .userId(USER_ID)
+                .login("testuser")
+                .roles(Set.of(role))
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
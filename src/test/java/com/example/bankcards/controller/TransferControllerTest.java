@@ -1,23 +1,40 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.controller.impl.TransferController;
+import com.example.bankcards.dto.request.TransferBatchRequest;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransferResultResponse;
+import com.example.bankcards.dto.response.TransferStatusResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.custom.AsyncTransferUnavailableException;
+import com.example.bankcards.exception.custom.TransferNotFoundException;
 import com.example.bankcards.exception.custom.CardNotFoundException;
+import com.example.bankcards.exception.custom.IdempotencyKeyConflictException;
+import com.example.bankcards.service.AsyncTransferService;
 import com.example.bankcards.service.TransferService;
+import com.example.bankcards.util.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransferController.class)
@@ -31,14 +48,33 @@ class TransferControllerTest {
     @MockitoBean
     private TransferService transferService;
 
+    @MockitoBean
+    private AsyncTransferService asyncTransferService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    private final UUID USER_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .userId(USER_ID)
+                .login("testuser")
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void transfer_ShouldReturnOk_WhenTransferIsSuccessful() throws Exception {
         // given
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(100.00));
-        doNothing().when(transferService).transfer(request);
+        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00"));
+        doNothing().when(transferService).transfer(request, USER_ID, null);
 
         // when & then
         mockMvc.perform(post("/api/transfers")
@@ -46,13 +82,13 @@ class TransferControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk());
 
-        verify(transferService).transfer(request);
+        verify(transferService).transfer(request, USER_ID, null);
     }
 
     @Test
     void transfer_ShouldReturnBadRequest_WhenInputIsInvalid() throws Exception {
         // given
-        TransferRequest invalidRequest = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(-100.00));
+        TransferRequest invalidRequest = new TransferRequest("1234567890123456", "6543210987654321", Money.parse("-100.00"));
 
         // when & then
         mockMvc.perform(post("/api/transfers")
@@ -60,14 +96,76 @@ class TransferControllerTest {
                         .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(transferService, never()).transfer(any());
+        verify(transferService, never()).transfer(any(), any(), any());
+    }
+
+    @Test
+    void transfer_ShouldReturnBadRequest_WhenAmountHasMoreThanTwoDecimalPlaces() throws Exception {
+        // given
+        String invalidRequest = "{\"numberFrom\":\"1234567890123456\",\"numberTo\":\"6543210987654321\",\"amount\":10.005}";
+
+        // when & then
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(invalidRequest))
+                .andExpect(status().isBadRequest());
+
+        verify(transferService, never()).transfer(any(), any(), any());
+    }
+
+    @Test
+    @Timeout(5)
+    void transfer_ShouldReturnBadRequest_WhenAmountHasHugeExponent() throws Exception {
+        // given
+        String numberRequest = "{\"numberFrom\":\"1234567890123456\",\"numberTo\":\"6543210987654321\",\"amount\":1e10000000}";
+        String stringRequest = "{\"numberFrom\":\"1234567890123456\",\"numberTo\":\"6543210987654321\",\"amount\":\"1e-10000000\"}";
+
+        // when & then
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(numberRequest))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(stringRequest))
+                .andExpect(status().isBadRequest());
+
+        verify(transferService, never()).transfer(any(), any(), any());
+    }
+
+    @Test
+    void transfer_ShouldReadAmountFromString_WhenAmountIsQuoted() throws Exception {
+        // given
+        String request = "{\"numberFrom\":\"1234567890123456\",\"numberTo\":\"6543210987654321\",\"amount\":\"100.50\"}";
+
+        // when & then
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isOk());
+
+        verify(transferService).transfer(new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.50")), USER_ID, null);
+    }
+
+    @Test
+    void transfer_ShouldReturnBadRequest_WhenAmountStringIsNotANumber() throws Exception {
+        // given
+        String invalidRequest = "{\"numberFrom\":\"1234567890123456\",\"numberTo\":\"6543210987654321\",\"amount\":\"100,50\"}";
+
+        // when & then
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(invalidRequest))
+                .andExpect(status().isBadRequest());
+
+        verify(transferService, never()).transfer(any(), any(), any());
     }
 
     @Test
     void transfer_ShouldReturnNotFound_WhenCardNotFound() throws Exception {
         // given
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(100.00));
-        doThrow(new CardNotFoundException("Card not found")).when(transferService).transfer(request);
+        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00"));
+        doThrow(new CardNotFoundException("Card not found")).when(transferService).transfer(request, USER_ID, null);
 
         // when & then
         mockMvc.perform(post("/api/transfers")
@@ -75,6 +173,149 @@ class TransferControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isNotFound());
 
-        verify(transferService).transfer(request);
+        verify(transferService).transfer(request, USER_ID, null);
+    }
+
+    @Test
+    void transfer_ShouldPassIdempotencyKey_WhenHeaderIsPresent() throws Exception {
+        // given
+        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00"));
+        String idempotencyKey = "0f8fad5b-d9cb-469f-a165-70867728950e";
+
+        // when & then
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        verify(transferService).transfer(request, USER_ID, idempotencyKey);
+    }
+
+    @Test
+    void transfer_ShouldReturnConflict_WhenIdempotencyKeyIsReusedForAnotherTransfer() throws Exception {
+        // given
+        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00"));
+        doThrow(new IdempotencyKeyConflictException("Idempotency key was already used for a different request"))
+                .when(transferService).transfer(request, USER_ID, "key-1");
+
+        // when & then
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void transfer_ShouldReturnBadRequest_WhenIdempotencyKeyIsTooLong() throws Exception {
+        // given
+        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00"));
+
+        // when & then
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", "k".repeat(65))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(transferService, never()).transfer(any(), any(), any());
+    }
+
+    @Test
+    void transferBatch_ShouldReturnResultPerTransfer() throws Exception {
+        // given
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00")),
+                new TransferRequest("6543210987654321", "1234567890123456", Money.parse("900.00"))
+        );
+        List<TransferResultResponse> results = List.of(
+                TransferResultResponse.builder().index(0).status("COMPLETED").build(),
+                TransferResultResponse.builder().index(1).status("FAILED").message("Insufficient funds on source card").build()
+        );
+        when(transferService.transferBatch(transfers)).thenReturn(results);
+
+        // when & then
+        mockMvc.perform(post("/api/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransferBatchRequest(transfers))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].message").value("Insufficient funds on source card"));
+
+        verify(transferService).transferBatch(transfers);
+    }
+
+    @Test
+    void transferBatch_ShouldReturnBadRequest_WhenAnyTransferIsInvalid() throws Exception {
+        // given
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00")),
+                new TransferRequest("123", "6543210987654321", Money.parse("100.00"))
+        );
+
+        // when & then
+        mockMvc.perform(post("/api/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransferBatchRequest(transfers))))
+                .andExpect(status().isBadRequest());
+
+        verify(transferService, never()).transferBatch(any());
+    }
+
+    @Test
+    void transferAsync_ShouldReturnAccepted_WithTransferId() throws Exception {
+        // given
+        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00"));
+        UUID transferId = UUID.randomUUID();
+        when(asyncTransferService.submit(request, USER_ID)).thenReturn(new TransferStatusResponse(transferId, "PENDING", null));
+
+        // when & then
+        mockMvc.perform(post("/api/transfers/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.transferId").value(transferId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void transferAsync_ShouldReturnServiceUnavailable_WhenQueueIsFull() throws Exception {
+        // given
+        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", Money.parse("100.00"));
+        when(asyncTransferService.submit(request, USER_ID)).thenThrow(new AsyncTransferUnavailableException("Transfer queue is full, please retry later"));
+
+        // when & then
+        mockMvc.perform(post("/api/transfers/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getTransferStatus_ShouldReturnOutcome() throws Exception {
+        // given
+        UUID transferId = UUID.randomUUID();
+        when(asyncTransferService.getStatus(transferId, USER_ID))
+                .thenReturn(new TransferStatusResponse(transferId, "FAILED", "Insufficient funds on source card"));
+
+        // when & then
+        mockMvc.perform(get("/api/transfers/async/{transferId}", transferId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.message").value("Insufficient funds on source card"));
+    }
+
+    @Test
+    void getTransferStatus_ShouldReturnNotFound_WhenTransferBelongsToAnotherUser() throws Exception {
+        // given
+        UUID transferId = UUID.randomUUID();
+        when(asyncTransferService.getStatus(transferId, USER_ID))
+                .thenThrow(new TransferNotFoundException("Transfer not found with id: " + transferId));
+
+        // when & then
+        mockMvc.perform(get("/api/transfers/async/{transferId}", transferId))
+                .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,9 @@ package com.example.bankcards.controller;
 import com.example.bankcards.controller.impl.UserController;
 import com.example.bankcards.dto.request.UserCreateRequest;
 import com.example.bankcards.dto.request.UserPasswordUpdateRequest;
+import com.example.bankcards.dto.response.KeysetPage;
 import com.example.bankcards.dto.response.UserResponse;
+import com.example.bankcards.util.KeysetUtil;
 import com.example.bankcards.exception.custom.UserAlreadyExistsException;
 import com.example.bankcards.exception.custom.UserNotFoundException;
 import com.example.bankcards.service.UserService;
@@ -62,6 +64,28 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].rolesNames[0]").value("ROLE_USER"));
     }
 
+    @Test
+    void getUsers_ShouldOmitNextCursorHeader_WhenKeysetPageIsLast() throws Exception {
+        // given
+        UserResponse userResponse = UserResponse.builder()
+                .login("testuser")
+                .cardsNumbers(List.of("1234567890123456"))
+                .rolesNames(List.of("ROLE_USER"))
+                .blockRequestStatuses(List.of("PENDING"))
+                .build();
+        given(userService.getAllAfter("YWRtaW4", 10)).willReturn(new KeysetPage<>(List.of(userResponse), null));
+
+        // when & then
+        mockMvc.perform(get("/api/users")
+                        .param("after", "YWRtaW4")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetUtil.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[0].login").value("testuser"));
+
+        verify(userService, never()).getAll(anyInt(), anyInt());
+    }
+
     @Test
     void getUserById_ShouldReturnUser() throws Exception {
         // given
@@ -0,0 +1,107 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.config.CardExpiryProperties;
+import com.example.bankcards.entity.CardExpiryPartition;
+import com.example.bankcards.repository.CardExpiryPartitionRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardCacheService;
+import com.example.bankcards.service.impl.CardExpiryServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiredCardSchedulerTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardExpiryPartitionRepository partitionRepository;
+
+    @Mock
+    private CardCacheService cardCacheService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExpiredCardScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        CardExpiryProperties properties = new CardExpiryProperties();
+        properties.setChunkSize(2);
+        properties.setWorkers(1);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new ExpiredCardScheduler(
+                new CardExpiryServiceImpl(cardRepository, partitionRepository, cardCacheService, properties, transactionManager),
+                meterRegistry);
+    }
+
+    @Test
+    void resumeExpiredCards_ShouldContinueInterruptedRunFromLastNumber() {
+        // given
+        YearMonth month = YearMonth.now();
+        // a node crashed in the middle of partition 3, its lease has run out
+        CardExpiryPartition interrupted = CardExpiryPartition.builder()
+                .partitionNo(3)
+                .runMonth(month)
+                .rangeFrom("")
+                .rangeTo("6666666666666666")
+                .lastNumber("4444444444444444")
+                .leaseOwner("crashed-node/0")
+                .leaseUntil(LocalDateTime.now().minusMinutes(1))
+                .updatedAt(LocalDateTime.now().minusMinutes(6))
+                .build();
+        when(partitionRepository.existsByRunMonth(month)).thenReturn(true);
+        when(partitionRepository.findClaimable(eq(month), any(), any())).thenReturn(List.of(interrupted)).thenReturn(List.of());
+        when(partitionRepository.save(interrupted)).thenReturn(interrupted);
+        when(partitionRepository.renewLease(eq(3), any(), any())).thenReturn(1);
+        when(cardRepository.findRangeEnd("4444444444444444", 1)).thenReturn(Optional.empty());
+        when(cardRepository.findExpiredNumbersInRange("4444444444444444", "6666666666666666", month))
+                .thenReturn(List.of("5555555555555555"));
+        when(cardRepository.markExpired(List.of("5555555555555555"), month)).thenReturn(1);
+
+        // when
+        scheduler.resumeExpiredCards();
+
+        // then
+        assertThat(interrupted.getLeaseOwner()).isNotEqualTo("crashed-node/0");
+        verify(partitionRepository, never()).deleteOtherRuns(any());
+        verify(cardRepository, never()).findPartitionBounds(anyInt());
+        verify(partitionRepository).advance(eq(3), eq("6666666666666666"), eq(1L), any());
+        verify(partitionRepository).complete(eq(3), any());
+        assertThat(meterRegistry.get("card.expiry.cards").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("card.expiry.duration").tag("trigger", "resume").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void resumeExpiredCards_ShouldNotTouchCards_WhenRunIsCompleted() {
+        // given
+        YearMonth month = YearMonth.now();
+        when(partitionRepository.existsByRunMonth(month)).thenReturn(true);
+        when(partitionRepository.findClaimable(eq(month), any(), any())).thenReturn(List.of());
+
+        // when
+        scheduler.resumeExpiredCards();
+
+        // then
+        verifyNoInteractions(cardRepository, cardCacheService);
+        verify(partitionRepository, never()).deleteOtherRuns(any());
+    }
+}
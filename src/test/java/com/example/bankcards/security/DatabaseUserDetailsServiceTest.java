@@ -0,0 +1,65 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.RoleNameEnum;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private DatabaseUserDetailsService userDetailsService;
+
+    @Test
+    void loadUserByUsername_ShouldGrantAuthoritiesMatchingHasRole() {
+        // given
+        Role role = new Role();
+        role.setName(RoleNameEnum.ROLE_ADMIN);
+        User user = User.builder()
+                .login("admin")
+                .roles(Set.of(role))
+                .build();
+        when(userRepository.findByLogin("admin")).thenReturn(Optional.of(user));
+
+        // when
+        UserDetails userDetails = userDetailsService.loadUserByUsername("admin");
+
+        // then
+        assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        Authentication authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        assertThat(AuthorityAuthorizationManager.hasRole("ADMIN").authorize(() -> authentication, null).isGranted()).isTrue();
+        assertThat(AuthorityAuthorizationManager.hasRole("USER").authorize(() -> authentication, null).isGranted()).isFalse();
+    }
+
+    @Test
+    void loadUserByUsername_ShouldThrowException_WhenLoginDoesNotExist() {
+        // given
+        when(userRepository.findByLogin("unknown")).thenReturn(Optional.empty());
+
+        // when & then
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("unknown"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.AsyncTransferProperties;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransferStatusResponse;
+import com.example.bankcards.exception.custom.AsyncTransferUnavailableException;
+import com.example.bankcards.exception.custom.TransferNotFoundException;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.service.impl.AsyncTransferServiceImpl;
+import com.example.bankcards.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransferServiceTest {
+
+    private static final String FIRST_NUMBER = "1234567890123456";
+    private static final String SECOND_NUMBER = "6543210987654321";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @Mock
+    private TransferService transferService;
+
+    private final TransferMapper transferMapper = new TransferMapper();
+
+    private AsyncTransferServiceImpl asyncTransferService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncTransferService.stop();
+    }
+
+    @Test
+    void submit_ShouldExecuteQueuedTransfersAsOneBatch() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        TransferRequest first = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1"));
+        TransferRequest second = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("10"));
+        TransferRequest third = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1000"));
+        when(transferService.transferBatch(List.of(first))).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(transferMapper.toCompletedResult(0));
+        });
+        when(transferService.transferBatch(List.of(second, third))).thenReturn(List.of(
+                transferMapper.toCompletedResult(0),
+                transferMapper.toFailedResult(1, "Insufficient funds on source card")
+        ));
+        asyncTransferService = startedService(1, 10);
+
+        // when
+        TransferStatusResponse firstStatus = asyncTransferService.submit(first, USER_ID);
+        verify(transferService, timeout(5000)).transferBatch(List.of(first));
+        TransferStatusResponse secondStatus = asyncTransferService.submit(second, USER_ID);
+        TransferStatusResponse thirdStatus = asyncTransferService.submit(third, USER_ID);
+        release.countDown();
+
+        // then
+        assertThat(secondStatus.status()).isEqualTo("PENDING");
+        verify(transferService, timeout(5000)).transferBatch(List.of(second, third));
+        awaitStatus(thirdStatus.transferId(), "FAILED");
+        assertThat(asyncTransferService.getStatus(firstStatus.transferId(), USER_ID).status()).isEqualTo("COMPLETED");
+        assertThat(asyncTransferService.getStatus(secondStatus.transferId(), USER_ID).status()).isEqualTo("COMPLETED");
+        assertThat(asyncTransferService.getStatus(thirdStatus.transferId(), USER_ID).message()).isEqualTo("Insufficient funds on source card");
+    }
+
+    @Test
+    void submit_ShouldMarkWholeBatchFailed_WhenBatchTransactionFails() throws Exception {
+        // given
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1"));
+        when(transferService.transferBatch(any())).thenThrow(new IllegalStateException("Connection refused"));
+        asyncTransferService = startedService(2, 10);
+
+        // when
+        TransferStatusResponse status = asyncTransferService.submit(request, USER_ID);
+
+        // then
+        awaitStatus(status.transferId(), "FAILED");
+        assertThat(asyncTransferService.getStatus(status.transferId(), USER_ID).message()).isEqualTo("Transfer batch failed, please retry");
+    }
+
+    @Test
+    void submit_ShouldThrowException_WhenQueueIsFull() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        when(transferService.transferBatch(any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(transferMapper.toCompletedResult(0));
+        });
+        asyncTransferService = startedService(1, 1);
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1"));
+        asyncTransferService.submit(request, USER_ID);
+        verify(transferService, timeout(5000)).transferBatch(any());
+        asyncTransferService.submit(request, USER_ID);
+
+        // when & then
+        assertThatThrownBy(() -> asyncTransferService.submit(request, USER_ID))
+                .isInstanceOf(AsyncTransferUnavailableException.class)
+                .hasMessage("Transfer queue is full, please retry later");
+        release.countDown();
+    }
+
+    @Test
+    void stop_ShouldCompleteEveryAcceptedTransfer_WhenSubmitsRaceWithStop() throws Exception {
+        // given
+        when(transferService.transferBatch(any())).thenAnswer(invocation -> {
+            List<TransferRequest> requests = invocation.getArgument(0);
+            return IntStream.range(0, requests.size()).mapToObj(transferMapper::toCompletedResult).toList();
+        });
+        asyncTransferService = startedService(4, 100_000);
+        List<UUID> accepted = new CopyOnWriteArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        CountDownLatch submitting = new CountDownLatch(4);
+        for (int client = 0; client < 4; client++) {
+            String number = String.valueOf(1_000_000_000_000_000L + client);
+            clients.execute(() -> {
+                submitting.countDown();
+                try {
+                    while (true) {
+                        accepted.add(asyncTransferService.submit(new TransferRequest(number, SECOND_NUMBER, Money.parse("1")), USER_ID).transferId());
+                    }
+                } catch (AsyncTransferUnavailableException e) {
+                    // the service has stopped accepting transfers
+                }
+            });
+        }
+
+        // when
+        submitting.await(5, TimeUnit.SECONDS);
+        Thread.sleep(20);
+        asyncTransferService.stop();
+        clients.shutdown();
+        assertThat(clients.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // then
+        assertThat(accepted).isNotEmpty();
+        assertThat(accepted).allSatisfy(transferId ->
+                assertThat(asyncTransferService.getStatus(transferId, USER_ID).status()).isEqualTo("COMPLETED"));
+    }
+
+    @Test
+    void getStatus_ShouldKeepPendingTransfers_WhenFinishedStatusesAreEvicted() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        when(transferService.transferBatch(any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(transferMapper.toCompletedResult(0));
+        });
+        AsyncTransferProperties properties = new AsyncTransferProperties();
+        properties.setEnabled(true);
+        properties.setShards(1);
+        properties.setBatchSize(1);
+        properties.setStatusCacheSize(1);
+        asyncTransferService = new AsyncTransferServiceImpl(transferService, transferMapper, properties, new SimpleMeterRegistry());
+        asyncTransferService.start();
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1"));
+
+        // when
+        List<UUID> transferIds = List.of(
+                asyncTransferService.submit(request, USER_ID).transferId(),
+                asyncTransferService.submit(request, USER_ID).transferId(),
+                asyncTransferService.submit(request, USER_ID).transferId());
+
+        // then
+        assertThat(transferIds).allSatisfy(transferId ->
+                assertThat(asyncTransferService.getStatus(transferId, USER_ID).status()).isEqualTo("PENDING"));
+        release.countDown();
+        awaitStatus(transferIds.get(2), "COMPLETED");
+        assertThatThrownBy(() -> asyncTransferService.getStatus(transferIds.get(0), USER_ID))
+                .isInstanceOf(TransferNotFoundException.class);
+    }
+
+    @Test
+    void submit_ShouldThrowException_WhenAsyncModeIsDisabled() {
+        // given
+        asyncTransferService = new AsyncTransferServiceImpl(transferService, transferMapper, new AsyncTransferProperties(), new SimpleMeterRegistry());
+        asyncTransferService.start();
+
+        // when & then
+        assertThatThrownBy(() -> asyncTransferService.submit(new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1")), USER_ID))
+                .isInstanceOf(AsyncTransferUnavailableException.class)
+                .hasMessage("Async transfers are disabled");
+        verifyNoInteractions(transferService);
+    }
+
+    @Test
+    void getStatus_ShouldThrowException_WhenTransferIsUnknown() {
+        // given
+        asyncTransferService = startedService(1, 10);
+        UUID transferId = UUID.randomUUID();
+
+        // when & then
+        assertThatThrownBy(() -> asyncTransferService.getStatus(transferId, USER_ID))
+                .isInstanceOf(TransferNotFoundException.class)
+                .hasMessage("Transfer not found with id: " + transferId);
+    }
+
+    @Test
+    void getStatus_ShouldThrowException_WhenTransferBelongsToAnotherUser() throws Exception {
+        // given
+        asyncTransferService = startedService(1, 10);
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("1"));
+        when(transferService.transferBatch(List.of(request))).thenReturn(List.of(transferMapper.toCompletedResult(0)));
+        UUID transferId = asyncTransferService.submit(request, USER_ID).transferId();
+        awaitStatus(transferId, "COMPLETED");
+
+        // when & then
+        assertThatThrownBy(() -> asyncTransferService.getStatus(transferId, UUID.randomUUID()))
+                .isInstanceOf(TransferNotFoundException.class)
+                .hasMessage("Transfer not found with id: " + transferId);
+    }
+
+    private AsyncTransferServiceImpl startedService(int shards, int queueCapacity) {
+        AsyncTransferProperties properties = new AsyncTransferProperties();
+        properties.setEnabled(true);
+        properties.setShards(shards);
+        properties.setQueueCapacity(queueCapacity);
+        AsyncTransferServiceImpl service = new AsyncTransferServiceImpl(transferService, transferMapper, properties, new SimpleMeterRegistry());
+        service.start();
+        return service;
+    }
+
+    private void awaitStatus(UUID transferId, String status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!asyncTransferService.getStatus(transferId, USER_ID).status().equals(status) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(asyncTransferService.getStatus(transferId, USER_ID).status()).isEqualTo(status);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.response.BlockRequestResponse;
+import com.example.bankcards.dto.response.KeysetPage;
 import com.example.bankcards.entity.BlockRequest;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.enums.BlockRequestStatusEnum;
@@ -8,6 +9,7 @@ import com.example.bankcards.exception.custom.BlockRequestNotFoundException;
 import com.example.bankcards.mapper.BlockRequestMapper;
 import com.example.bankcards.repository.BlockRequestRepository;
 import com.example.bankcards.service.impl.BlockRequestServiceImpl;
+import com.example.bankcards.util.CursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +19,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -116,6 +120,45 @@ class BlockRequestServiceTest {
         verify(blockRequestMapper).toResponse(blockRequest);
     }
 
+    @Test
+    void getAllAfter_ShouldReadFirstSlice_WhenCursorIsEmpty() {
+        // given
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Slice<BlockRequest> blockRequestSlice = new SliceImpl<>(List.of(blockRequest), pageRequest, true);
+        when(blockRequestRepository.findFirstSliceWithRequester(pageRequest)).thenReturn(blockRequestSlice);
+        when(blockRequestMapper.toResponse(blockRequest)).thenReturn(blockRequestResponse);
+
+        // when
+        KeysetPage<BlockRequestResponse> result = blockRequestService.getAllAfter("", 1);
+
+        // then
+        assertThat(result.items()).containsExactly(blockRequestResponse);
+        CursorUtil.UuidPosition position = CursorUtil.decodeUuid(result.nextCursor());
+        assertThat(position.createdAt()).isEqualTo(blockRequest.getRequestDate());
+        assertThat(position.id()).isEqualTo(requestId);
+    }
+
+    @Test
+    void getByStatusAfter_ShouldContinueFromCursorPosition() {
+        // given
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        LocalDateTime requestDate = LocalDateTime.of(2025, 6, 1, 12, 0);
+        UUID lastRequestId = UUID.randomUUID();
+        Slice<BlockRequest> blockRequestSlice = new SliceImpl<>(List.of(blockRequest), pageRequest, false);
+        when(blockRequestRepository.findSliceByStatusWithRequesterAfter(BlockRequestStatusEnum.PENDING, requestDate, lastRequestId, pageRequest))
+                .thenReturn(blockRequestSlice);
+        when(blockRequestMapper.toResponse(blockRequest)).thenReturn(blockRequestResponse);
+
+        // when
+        KeysetPage<BlockRequestResponse> result = blockRequestService.getByStatusAfter(
+                "pending", CursorUtil.encode(requestDate, lastRequestId), 10);
+
+        // then
+        assertThat(result.items()).containsExactly(blockRequestResponse);
+        assertThat(result.nextCursor()).isNull();
+        verify(blockRequestRepository, never()).findByStatusWithRequester(any(), any());
+    }
+
     @Test
     void getByStatus_ShouldThrowException_WhenInvalidStatus() {
         // given
@@ -0,0 +1,213 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardBulkProperties;
+import com.example.bankcards.dto.response.CardBulkErrorResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardBulkFormatEnum;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.impl.CardBulkServiceImpl;
+import com.example.bankcards.util.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardBulkServiceTest {
+
+    private static final UUID OWNER_ID = UUID.fromString("d3d94468-2d6a-4d2a-9f38-0a9d27f8c1b3");
+    private static final YearMonth EXPIRATION_DATE = YearMonth.now().plusYears(2);
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CardNumberService cardNumberService;
+
+    private CardBulkService cardBulkService;
+
+    private final List<CardBulkErrorResponse> errors = new ArrayList<>();
+
+    private int chunksDone;
+
+    @BeforeEach
+    void setUp() {
+        CardBulkProperties properties = new CardBulkProperties();
+        properties.setChunkSize(2);
+        properties.setBatchSize(100);
+        cardBulkService = new CardBulkServiceImpl(cardRepository, userRepository, new CardMapper(), cardNumberService,
+                new ObjectMapper().findAndRegisterModules(), Validation.buildDefaultValidatorFactory().getValidator(),
+                entityManager, properties, transactionManager);
+    }
+
+    @Test
+    void createAll_ShouldCreateValidCardsAndReportRejectedLines_WhenBodyIsNdjson() throws IOException {
+        // given
+        UUID unknownOwner = UUID.randomUUID();
+        String body = String.join("\n",
+                json("1111222233334444", OWNER_ID),
+                "{\"number\": ",
+                json("5555666677778888", unknownOwner),
+                json("123", OWNER_ID),
+                "",
+                json("1111222233334444", OWNER_ID));
+        // the card of the first chunk is committed before the second chunk is checked
+        stubDatabase(Set.of(OWNER_ID), List.of(), List.of("1111222233334444"));
+
+        // when
+        long created = cardBulkService.createAll(reader(body), CardBulkFormatEnum.NDJSON, errors::add, () -> chunksDone++);
+
+        // then
+        assertThat(created).isEqualTo(1);
+        assertThat(errors).extracting(CardBulkErrorResponse::line).containsExactly(2L, 3L, 4L, 6L);
+        assertThat(errors.get(0).message()).startsWith("Invalid JSON");
+        assertThat(errors.get(1).message()).isEqualTo("User not found with id: " + unknownOwner);
+        assertThat(errors.get(2).message()).isEqualTo("Card number must be 16 digits");
+        assertThat(errors.get(3).message()).isEqualTo("Card already exists with number: ************4444");
+
+        List<Card> cards = savedCards();
+        assertThat(cards).hasSize(1);
+        assertThat(cards.get(0).getNumber()).isEqualTo("1111222233334444");
+        assertThat(cards.get(0).getStatus()).isEqualTo(CardStatusEnum.ACTIVE);
+        assertThat(cards.get(0).getBalance()).isEqualTo(Money.ZERO);
+        verify(session, times(2)).setJdbcBatchSize(100);
+    }
+
+    @Test
+    void createAll_ShouldSkipHeaderAndCommitInChunks_WhenBodyIsCsv() throws IOException {
+        // given
+        String body = String.join("\n",
+                "number,expirationDate,ownerId",
+                csv("1111222233334444"),
+                csv("5555666677778888"),
+                "9999000011112222,12-2030," + OWNER_ID,
+                csv("9999000011112222"));
+        stubDatabase(Set.of(OWNER_ID), List.of("5555666677778888"));
+
+        // when
+        long created = cardBulkService.createAll(reader(body), CardBulkFormatEnum.CSV, errors::add, () -> chunksDone++);
+
+        // then
+        assertThat(created).isEqualTo(2);
+        assertThat(errors).containsExactly(
+                new CardBulkErrorResponse(3L, "Card already exists with number: ************8888"),
+                new CardBulkErrorResponse(4L, "Invalid expiration date: 12-2030"));
+        assertThat(savedCards()).extracting(Card::getNumber).containsExactly("1111222233334444", "9999000011112222");
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(chunksDone).isEqualTo(2);
+    }
+
+    @Test
+    void createAll_ShouldGenerateNumber_WhenLineHasNoNumber() throws IOException {
+        // given
+        String body = String.join("\n", "," + EXPIRATION_DATE + "," + OWNER_ID, csv("1111222233334444"));
+        stubDatabase(Set.of(OWNER_ID), List.of());
+        when(cardNumberService.generate()).thenReturn("4000000000000002");
+
+        // when
+        long created = cardBulkService.createAll(reader(body), CardBulkFormatEnum.CSV, errors::add, () -> chunksDone++);
+
+        // then
+        assertThat(created).isEqualTo(2);
+        assertThat(errors).isEmpty();
+        assertThat(savedCards()).extracting(Card::getNumber).containsExactly("4000000000000002", "1111222233334444");
+        verify(cardNumberService, times(1)).generate();
+    }
+
+    @Test
+    void createAll_ShouldRejectLine_WhenNumberIsInGeneratedBin() throws IOException {
+        // given
+        String body = String.join("\n", csv("4000000000000002"), "," + EXPIRATION_DATE + "," + OWNER_ID);
+        stubDatabase(Set.of(OWNER_ID), List.of());
+        when(cardNumberService.generate()).thenReturn("4000000000000010");
+        when(cardNumberService.isGenerated("4000000000000002")).thenReturn(true);
+
+        // when
+        long created = cardBulkService.createAll(reader(body), CardBulkFormatEnum.CSV, errors::add, () -> chunksDone++);
+
+        // then
+        assertThat(created).isEqualTo(1);
+        assertThat(errors).containsExactly(
+                new CardBulkErrorResponse(1L, "Card number is reserved for generated cards: ************0002"));
+        assertThat(savedCards()).extracting(Card::getNumber).containsExactly("4000000000000010");
+    }
+
+    @Test
+    void createAll_ShouldRejectWholeChunk_WhenConcurrentInsertTookNumber() throws IOException {
+        // given
+        String body = String.join("\n", csv("1111222233334444"), csv("5555666677778888"));
+        stubDatabase(Set.of(OWNER_ID), List.of());
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(transactionManager).commit(any());
+
+        // when
+        long created = cardBulkService.createAll(reader(body), CardBulkFormatEnum.CSV, errors::add, () -> chunksDone++);
+
+        // then
+        assertThat(created).isZero();
+        assertThat(errors).extracting(CardBulkErrorResponse::line).containsExactly(1L, 2L);
+        assertThat(chunksDone).isEqualTo(1);
+    }
+
+    @SafeVarargs
+    private void stubDatabase(Set<UUID> owners, List<String> takenNumbers, List<String>... laterTakenNumbers) {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(userRepository.findExistingIds(any())).thenReturn(owners);
+        when(userRepository.getReferenceById(OWNER_ID)).thenReturn(User.builder().userId(OWNER_ID).build());
+        when(cardRepository.findExistingNumbers(any())).thenReturn(takenNumbers, laterTakenNumbers);
+    }
+
+    private List<Card> savedCards() {
+        ArgumentCaptor<List<Card>> chunks = ArgumentCaptor.captor();
+        verify(cardRepository, atLeastOnce()).saveAll(chunks.capture());
+        return chunks.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private static String json(String number, UUID ownerId) {
+        return "{\"number\":\"" + number + "\",\"expirationDate\":\"" + EXPIRATION_DATE + "\",\"ownerId\":\"" + ownerId + "\"}";
+    }
+
+    private static String csv(String number) {
+        return number + "," + EXPIRATION_DATE + "," + OWNER_ID;
+    }
+
+    private static BufferedReader reader(String body) {
+        return new BufferedReader(new StringReader(body));
+    }
+}
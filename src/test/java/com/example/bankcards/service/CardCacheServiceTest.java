@@ -0,0 +1,143 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardCacheProperties;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.exception.custom.CardNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.service.impl.CardCacheServiceImpl;
+import com.example.bankcards.util.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardCacheServiceTest {
+
+    private static final String FIRST_NUMBER = "1234567890123456";
+    private static final String SECOND_NUMBER = "6543210987654321";
+
+    @Mock
+    private CardRepository cardRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID ownerId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_ShouldReadCardOnce_WhenCardIsRequestedRepeatedly() {
+        // given
+        CardCacheService cardCacheService = cacheService(true);
+        CardView card = view(FIRST_NUMBER, ownerId);
+        when(cardRepository.findViewByNumber(FIRST_NUMBER)).thenReturn(Optional.of(card));
+
+        // when
+        cardCacheService.get(FIRST_NUMBER);
+        CardView result = cardCacheService.get(FIRST_NUMBER);
+
+        // then
+        assertThat(result).isEqualTo(card);
+        verify(cardRepository, times(1)).findViewByNumber(FIRST_NUMBER);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "cards").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "cards").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingCard() {
+        // given
+        CardCacheService cardCacheService = cacheService(true);
+        when(cardRepository.findViewByNumber(FIRST_NUMBER)).thenReturn(Optional.empty());
+
+        // when & then
+        assertThatThrownBy(() -> cardCacheService.get(FIRST_NUMBER))
+                .isInstanceOf(CardNotFoundException.class)
+                .hasMessage("Card not found with number: " + FIRST_NUMBER);
+        assertThatThrownBy(() -> cardCacheService.get(FIRST_NUMBER))
+                .isInstanceOf(CardNotFoundException.class);
+        verify(cardRepository, times(2)).findViewByNumber(FIRST_NUMBER);
+    }
+
+    @Test
+    void get_ShouldReadCardEveryTime_WhenCacheIsDisabled() {
+        // given
+        CardCacheService cardCacheService = cacheService(false);
+        when(cardRepository.findViewByNumber(FIRST_NUMBER)).thenReturn(Optional.of(view(FIRST_NUMBER, ownerId)));
+
+        // when
+        cardCacheService.get(FIRST_NUMBER);
+        cardCacheService.get(FIRST_NUMBER);
+
+        // then
+        verify(cardRepository, times(2)).findViewByNumber(FIRST_NUMBER);
+    }
+
+    @Test
+    void evictAfterCommit_ShouldKeepCardUntilTransactionCommits() {
+        // given
+        CardCacheService cardCacheService = cacheService(true);
+        when(cardRepository.findViewByNumber(FIRST_NUMBER)).thenReturn(Optional.of(view(FIRST_NUMBER, ownerId)));
+        cardCacheService.get(FIRST_NUMBER);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        cardCacheService.evictAfterCommit(List.of(FIRST_NUMBER));
+        cardCacheService.get(FIRST_NUMBER);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        cardCacheService.get(FIRST_NUMBER);
+
+        // then
+        verify(cardRepository, times(2)).findViewByNumber(FIRST_NUMBER);
+    }
+
+    @Test
+    void evictOwnerAfterCommit_ShouldEvictOnlyOwnerCards() {
+        // given
+        CardCacheService cardCacheService = cacheService(true);
+        when(cardRepository.findViewByNumber(FIRST_NUMBER)).thenReturn(Optional.of(view(FIRST_NUMBER, ownerId)));
+        when(cardRepository.findViewByNumber(SECOND_NUMBER)).thenReturn(Optional.of(view(SECOND_NUMBER, UUID.randomUUID())));
+        cardCacheService.get(FIRST_NUMBER);
+        cardCacheService.get(SECOND_NUMBER);
+
+        // when
+        cardCacheService.evictOwnerAfterCommit(ownerId);
+        cardCacheService.get(FIRST_NUMBER);
+        cardCacheService.get(SECOND_NUMBER);
+
+        // then
+        verify(cardRepository, times(2)).findViewByNumber(FIRST_NUMBER);
+        verify(cardRepository, times(1)).findViewByNumber(SECOND_NUMBER);
+    }
+
+    private CardCacheService cacheService(boolean enabled) {
+        CardCacheProperties properties = new CardCacheProperties();
+        properties.setEnabled(enabled);
+        return new CardCacheServiceImpl(cardRepository, properties, meterRegistry);
+    }
+
+    private static CardView view(String number, UUID ownerId) {
+        return new CardView(number, YearMonth.now().plusYears(1), CardStatusEnum.ACTIVE, Money.parse("100.00"), ownerId);
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardExpiryProperties;
+import com.example.bankcards.entity.CardExpiryPartition;
+import com.example.bankcards.repository.CardExpiryPartitionRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.impl.CardExpiryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardExpiryServiceTest {
+
+    private static final String LAST_NUMBER = "9999999999999999";
+    private static final YearMonth MONTH = YearMonth.of(2026, 10);
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardExpiryPartitionRepository partitionRepository;
+
+    @Mock
+    private CardCacheService cardCacheService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CardExpiryService cardExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        CardExpiryProperties properties = new CardExpiryProperties();
+        properties.setChunkSize(2);
+        properties.setPartitions(2);
+        properties.setWorkers(1);
+        properties.getWriteBack().setBatchSize(2);
+        properties.getWriteBack().setMaxPending(3);
+        cardExpiryService = new CardExpiryServiceImpl(cardRepository, partitionRepository, cardCacheService, properties, transactionManager);
+    }
+
+    @Test
+    void expireCards_ShouldSplitRunIntoPartitions_WhenRunStartsForNewMonth() {
+        // given
+        when(partitionRepository.existsByRunMonth(MONTH)).thenReturn(false);
+        when(cardRepository.findPartitionBounds(2)).thenReturn(List.of("3333333333333333", "6666666666666666"));
+        when(partitionRepository.insertIfAbsent(anyInt(), anyInt(), any(), any(), any())).thenReturn(1);
+        when(partitionRepository.findClaimable(eq(MONTH), any(), any())).thenReturn(List.of());
+
+        // when
+        CardExpiryService.Result result = cardExpiryService.expireCards(MONTH, progress -> { });
+
+        // then
+        assertThat(result).isEqualTo(new CardExpiryService.Result(0, 0, 0));
+        verify(partitionRepository).deleteOtherRuns(MONTH);
+        verify(partitionRepository).insertIfAbsent(eq(0), eq(202610), eq(""), eq("3333333333333333"), any());
+        verify(partitionRepository).insertIfAbsent(eq(1), eq(202610), eq("3333333333333333"), eq(LAST_NUMBER), any());
+    }
+
+    @Test
+    void expireCards_ShouldStopPlanning_WhenAnotherNodePlannedRun() {
+        // given
+        when(partitionRepository.existsByRunMonth(MONTH)).thenReturn(false);
+        when(cardRepository.findPartitionBounds(2)).thenReturn(List.of("3333333333333333", "6666666666666666"));
+        when(partitionRepository.insertIfAbsent(anyInt(), anyInt(), any(), any(), any())).thenReturn(0);
+        when(partitionRepository.findClaimable(eq(MONTH), any(), any())).thenReturn(List.of());
+
+        // when
+        cardExpiryService.expireCards(MONTH, progress -> { });
+
+        // then
+        verify(partitionRepository, times(1)).insertIfAbsent(anyInt(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void expireCards_ShouldExpireClaimedPartitionChunkByChunk() {
+        // given
+        CardExpiryPartition partition = partition("", null);
+        when(partitionRepository.existsByRunMonth(MONTH)).thenReturn(true);
+        when(partitionRepository.findClaimable(eq(MONTH), any(), any())).thenReturn(List.of(partition)).thenReturn(List.of());
+        when(partitionRepository.save(partition)).thenReturn(partition);
+        when(partitionRepository.renewLease(eq(1), any(), any())).thenReturn(1);
+        when(cardRepository.findRangeEnd("", 1)).thenReturn(Optional.of("2222222222222222"));
+        when(cardRepository.findRangeEnd("2222222222222222", 1)).thenReturn(Optional.of("6666666666666667"));
+        when(cardRepository.findExpiredNumbersInRange("", "2222222222222222", MONTH)).thenReturn(List.of("1111111111111111"));
+        when(cardRepository.findExpiredNumbersInRange("2222222222222222", "6666666666666666", MONTH)).thenReturn(List.of());
+        when(cardRepository.markExpired(List.of("1111111111111111"), MONTH)).thenReturn(1);
+        List<CardExpiryService.Progress> progress = new ArrayList<>();
+
+        // when
+        CardExpiryService.Result result = cardExpiryService.expireCards(MONTH, progress::add);
+
+        // then
+        assertThat(result).isEqualTo(new CardExpiryService.Result(1, 2, 1));
+        assertThat(progress).containsExactly(
+                new CardExpiryService.Progress(1, "2222222222222222", 1),
+                new CardExpiryService.Progress(1, "6666666666666666", 0));
+        assertThat(partition.getLeaseOwner()).isNotNull();
+        verify(partitionRepository, never()).insertIfAbsent(anyInt(), anyInt(), any(), any(), any());
+        verify(cardCacheService).evictAfterCommit(List.of("1111111111111111"));
+        verify(partitionRepository).advance(eq(1), eq("2222222222222222"), eq(1L), any());
+        verify(partitionRepository).advance(eq(1), eq("6666666666666666"), eq(0L), any());
+        verify(partitionRepository).complete(eq(1), any());
+        verify(cardRepository, times(1)).markExpired(any(), any());
+    }
+
+    @Test
+    void expireCards_ShouldResumePartitionFromLastNumber() {
+        // given
+        CardExpiryPartition partition = partition("4444444444444444", LocalDateTime.now().minusMinutes(1));
+        when(partitionRepository.existsByRunMonth(MONTH)).thenReturn(true);
+        when(partitionRepository.findClaimable(eq(MONTH), any(), any())).thenReturn(List.of(partition)).thenReturn(List.of());
+        when(partitionRepository.save(partition)).thenReturn(partition);
+        when(partitionRepository.renewLease(eq(1), any(), any())).thenReturn(1);
+        when(cardRepository.findRangeEnd("4444444444444444", 1)).thenReturn(Optional.empty());
+        when(cardRepository.findExpiredNumbersInRange("4444444444444444", "6666666666666666", MONTH)).thenReturn(List.of());
+
+        // when
+        CardExpiryService.Result result = cardExpiryService.expireCards(MONTH, progress -> { });
+
+        // then
+        assertThat(result).isEqualTo(new CardExpiryService.Result(1, 1, 0));
+        verify(cardRepository, never()).findRangeEnd(eq(""), anyInt());
+        verify(partitionRepository).complete(eq(1), any());
+    }
+
+    @Test
+    void expireCards_ShouldLeavePartition_WhenLeaseIsTakenOver() {
+        // given
+        CardExpiryPartition partition = partition("", null);
+        when(partitionRepository.existsByRunMonth(MONTH)).thenReturn(true);
+        when(partitionRepository.findClaimable(eq(MONTH), any(), any())).thenReturn(List.of(partition)).thenReturn(List.of());
+        when(partitionRepository.save(partition)).thenReturn(partition);
+        when(partitionRepository.renewLease(eq(1), any(), any())).thenReturn(0);
+
+        // when
+        CardExpiryService.Result result = cardExpiryService.expireCards(MONTH, progress -> { });
+
+        // then
+        assertThat(result).isEqualTo(new CardExpiryService.Result(1, 0, 0));
+        verifyNoInteractions(cardRepository, cardCacheService);
+        verify(partitionRepository, never()).advance(anyInt(), any(), anyLong(), any());
+        verify(partitionRepository, never()).complete(anyInt(), any());
+    }
+
+    @Test
+    void flushWriteBack_ShouldMarkQueuedCardsOncePerCardInBatches() {
+        // given
+        cardExpiryService.scheduleWriteBack("1111111111111111");
+        cardExpiryService.scheduleWriteBack("2222222222222222");
+        cardExpiryService.scheduleWriteBack("1111111111111111");
+        cardExpiryService.scheduleWriteBack("3333333333333333");
+        when(cardRepository.markExpired(any(), eq(YearMonth.now()))).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).size());
+
+        // when
+        int expired = cardExpiryService.flushWriteBack();
+
+        // then
+        assertThat(expired).isEqualTo(3);
+        ArgumentCaptor<List<String>> batches = ArgumentCaptor.captor();
+        verify(cardRepository, times(2)).markExpired(batches.capture(), any());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(batches.getAllValues()).flatExtracting(batch -> batch)
+                .containsExactlyInAnyOrder("1111111111111111", "2222222222222222", "3333333333333333");
+        verify(cardCacheService, times(2)).evictAfterCommit(any());
+        assertThat(cardExpiryService.flushWriteBack()).isZero();
+    }
+
+    @Test
+    void scheduleWriteBack_ShouldDropCard_WhenQueueIsFull() {
+        // given
+        List.of("1111111111111111", "2222222222222222", "3333333333333333", "4444444444444444")
+                .forEach(cardExpiryService::scheduleWriteBack);
+        when(cardRepository.markExpired(any(), any())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).size());
+
+        // when
+        int expired = cardExpiryService.flushWriteBack();
+
+        // then
+        assertThat(expired).isEqualTo(3);
+    }
+
+    private static CardExpiryPartition partition(String lastNumber, LocalDateTime leaseUntil) {
+        return CardExpiryPartition.builder()
+                .partitionNo(1)
+                .runMonth(MONTH)
+                .rangeFrom("")
+                .rangeTo("6666666666666666")
+                .lastNumber(lastNumber)
+                .leaseOwner(leaseUntil == null ? null : "crashed-node/0")
+                .leaseUntil(leaseUntil)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardNumberProperties;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.impl.CardNumberServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardNumberServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    private CardNumberService cardNumberService;
+
+    @BeforeEach
+    void setUp() {
+        CardNumberProperties properties = new CardNumberProperties();
+        properties.setBin("400000");
+        cardNumberService = new CardNumberServiceImpl(cardRepository, properties);
+    }
+
+    @Test
+    void generate_ShouldReturnLuhnValidNumbersFromReservedBlock() {
+        // given
+        when(cardRepository.reserveNumberBlock()).thenReturn(0L);
+
+        // when
+        String first = cardNumberService.generate();
+        String second = cardNumberService.generate();
+
+        // then
+        assertThat(first).isEqualTo("4000000000000002");
+        assertThat(second).startsWith("400000000000001").hasSize(16);
+        assertThat(isLuhnValid(second)).isTrue();
+        verify(cardRepository, times(1)).reserveNumberBlock();
+    }
+
+    @Test
+    void generate_ShouldReserveNextBlock_WhenBlockIsUsedUp() {
+        // given
+        when(cardRepository.reserveNumberBlock()).thenReturn(5000L, 123_000L);
+
+        // when
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i <= CardNumberServiceImpl.BLOCK_SIZE; i++) {
+            numbers.add(cardNumberService.generate());
+        }
+
+        // then
+        assertThat(numbers).doesNotHaveDuplicates().allMatch(CardNumberServiceTest::isLuhnValid);
+        assertThat(numbers.get(0)).startsWith("400000000005000");
+        assertThat(numbers.get(CardNumberServiceImpl.BLOCK_SIZE - 1)).startsWith("400000000005999");
+        assertThat(numbers.get(CardNumberServiceImpl.BLOCK_SIZE)).startsWith("400000000123000");
+        verify(cardRepository, times(2)).reserveNumberBlock();
+    }
+
+    @Test
+    void generate_ShouldThrowException_WhenNumbersAreExhausted() {
+        // given
+        when(cardRepository.reserveNumberBlock()).thenReturn(999_999_500L);
+
+        // when & then
+        assertThatThrownBy(() -> cardNumberService.generate())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Card numbers for BIN 400000 are exhausted");
+    }
+
+    @Test
+    void isGenerated_ShouldMatchNumbersOfConfiguredBin() {
+        // when & then
+        assertThat(cardNumberService.isGenerated("4000001234567890")).isTrue();
+        assertThat(cardNumberService.isGenerated("4000011234567890")).isFalse();
+        verifyNoInteractions(cardRepository);
+    }
+
+    private static boolean isLuhnValid(String number) {
+        int sum = 0;
+        for (int i = 0; i < number.length(); i++) {
+            int digit = number.charAt(number.length() - 1 - i) - '0';
+            if (i % 2 == 1) {
+                digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+        }
+        return sum % 10 == 0;
+    }
+}
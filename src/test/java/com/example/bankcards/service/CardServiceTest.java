@@ -3,18 +3,24 @@ package com.example.bankcards.service;
 import com.example.bankcards.dto.request.CardCreateRequest;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.KeysetPage;
 import com.example.bankcards.entity.BlockRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.enums.BlockRequestStatusEnum;
 import com.example.bankcards.enums.CardStatusEnum;
 import com.example.bankcards.exception.custom.CardNotFoundException;
+import com.example.bankcards.exception.custom.CardNumberReservedException;
+import com.example.bankcards.exception.custom.InvalidCursorException;
 import com.example.bankcards.exception.custom.UserNotFoundException;
 import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.repository.BlockRequestRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardView;
 import com.example.bankcards.service.impl.CardServiceImpl;
+import com.example.bankcards.util.CursorUtil;
+import com.example.bankcards.util.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,14 +30,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -53,10 +63,20 @@ class CardServiceTest {
     @Mock
     private CardMapper cardMapper;
 
+    @Mock
+    private CardCacheService cardCacheService;
+
+    @Mock
+    private CardExpiryService cardExpiryService;
+
+    @Mock
+    private CardNumberService cardNumberService;
+
     @InjectMocks
     private CardServiceImpl cardService;
 
     private Card card;
+    private CardView cardView;
     private CardResponse cardResponse;
     private User user;
     private String cardNumber;
@@ -77,14 +97,15 @@ class CardServiceTest {
                 .number(cardNumber)
                 .expirationDate(expirationDate)
                 .status(CardStatusEnum.ACTIVE)
-                .balance(BigDecimal.valueOf(100.00))
+                .balance(Money.parse("100.00"))
                 .owner(user)
                 .build();
+        cardView = new CardView(cardNumber, expirationDate, CardStatusEnum.ACTIVE, Money.parse("100.00"), userId);
         cardResponse = CardResponse.builder()
                 .number(cardNumber)
                 .expirationDate(expirationDate)
                 .status(CardStatusEnum.ACTIVE.name())
-                .balance(BigDecimal.valueOf(100.00))
+                .balance(Money.parse("100.00"))
                 .ownerId(userId)
                 .build();
     }
@@ -95,9 +116,9 @@ class CardServiceTest {
         int page = 0;
         int size = 10;
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Card> cardPage = new PageImpl<>(Collections.singletonList(card));
-        when(cardRepository.findAll(pageRequest)).thenReturn(cardPage);
-        when(cardMapper.toResponse(card)).thenReturn(cardResponse);
+        Page<CardView> cardPage = new PageImpl<>(Collections.singletonList(cardView));
+        when(cardRepository.findAllViews(pageRequest)).thenReturn(cardPage);
+        when(cardMapper.toResponse(cardView)).thenReturn(cardResponse);
 
         // when
         List<CardResponse> result = cardService.getAll(page, size);
@@ -105,35 +126,131 @@ class CardServiceTest {
         // then
         assertThat(result).hasSize(1);
         assertThat(result.get(0)).isEqualTo(cardResponse);
-        verify(cardRepository).findAll(pageRequest);
-        verify(cardMapper).toResponse(card);
+        verify(cardRepository).findAllViews(pageRequest);
+        verify(cardRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    void getAllByOwner_ShouldReturnOwnerCardsOrderedByNumber() {
+        // given
+        int page = 0;
+        int size = 10;
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Page<CardView> cardPage = new PageImpl<>(Collections.singletonList(cardView));
+        when(cardRepository.findViewsByOwner(userId, pageRequest)).thenReturn(cardPage);
+        when(cardMapper.toResponse(cardView)).thenReturn(cardResponse);
+
+        // when
+        List<CardResponse> result = cardService.getAllByOwner(userId, page, size);
+
+        // then
+        assertThat(result).containsExactly(cardResponse);
+        verify(cardRepository).findViewsByOwner(userId, pageRequest);
+        verify(cardRepository, never()).findAllViews(any());
+    }
+
+    @Test
+    void getAllAfter_ShouldReturnNextCursor_WhenMoreCardsExist() {
+        // given
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Slice<CardView> cardSlice = new SliceImpl<>(List.of(cardView), pageRequest, true);
+        when(cardRepository.findViewsAfter("", pageRequest)).thenReturn(cardSlice);
+        when(cardMapper.toResponse(cardView)).thenReturn(cardResponse);
+
+        // when
+        KeysetPage<CardResponse> result = cardService.getAllAfter("", 1);
+
+        // then
+        assertThat(result.items()).containsExactly(cardResponse);
+        assertThat(CursorUtil.decodeKey(result.nextCursor())).isEqualTo(cardNumber);
+        verify(cardRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    void getAllByOwnerAfter_ShouldContinueAfterCursorCard() {
+        // given
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        String cursor = CursorUtil.encodeKey("1111111111111111");
+        Slice<CardView> cardSlice = new SliceImpl<>(List.of(cardView), pageRequest, false);
+        when(cardRepository.findViewsByOwnerAfter(userId, "1111111111111111", pageRequest)).thenReturn(cardSlice);
+        when(cardMapper.toResponse(cardView)).thenReturn(cardResponse);
+
+        // when
+        KeysetPage<CardResponse> result = cardService.getAllByOwnerAfter(userId, cursor, 10);
+
+        // then
+        assertThat(result.items()).containsExactly(cardResponse);
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getAllAfter_ShouldThrowException_WhenCursorIsInvalid() {
+        // when & then
+        assertThatThrownBy(() -> cardService.getAllAfter("not a cursor!", 10))
+                .isInstanceOf(InvalidCursorException.class);
+
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void exportAll_ShouldPassEveryCardAndCloseStream() {
+        // given
+        AtomicBoolean streamClosed = new AtomicBoolean();
+        when(cardRepository.streamAllViews()).thenReturn(Stream.of(cardView).onClose(() -> streamClosed.set(true)));
+        when(cardMapper.toResponse(cardView)).thenReturn(cardResponse);
+        List<CardResponse> exported = new ArrayList<>();
+
+        // when
+        cardService.exportAll(exported::add);
+
+        // then
+        assertThat(exported).containsExactly(cardResponse);
+        assertThat(streamClosed).isTrue();
     }
 
     @Test
     void getByNumber_ShouldReturnCard_WhenCardExists() {
         // given
-        when(cardRepository.findByNumber(cardNumber)).thenReturn(Optional.of(card));
-        when(cardMapper.toResponse(card)).thenReturn(cardResponse);
+        when(cardCacheService.get(cardNumber)).thenReturn(cardView);
+        when(cardMapper.toResponse(cardView)).thenReturn(cardResponse);
 
         // when
         CardResponse result = cardService.getByNumber(cardNumber);
 
         // then
         assertThat(result).isEqualTo(cardResponse);
-        verify(cardRepository).findByNumber(cardNumber);
-        verify(cardMapper).toResponse(card);
+        verify(cardCacheService).get(cardNumber);
+        verify(cardRepository, never()).findByNumber(any());
+        verify(cardExpiryService, never()).scheduleWriteBack(any());
+    }
+
+    @Test
+    void getByNumber_ShouldReturnExpiredCard_WhenExpiryHasPassedButIsNotWrittenYet() {
+        // given
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        CardView storedView = new CardView(cardNumber, lastMonth, CardStatusEnum.ACTIVE, Money.parse("100.00"), userId);
+        CardView expiredView = new CardView(cardNumber, lastMonth, CardStatusEnum.EXPIRED, Money.parse("100.00"), userId);
+        when(cardCacheService.get(cardNumber)).thenReturn(storedView);
+        when(cardMapper.toResponse(expiredView)).thenReturn(cardResponse);
+
+        // when
+        CardResponse result = cardService.getByNumber(cardNumber);
+
+        // then
+        assertThat(result).isEqualTo(cardResponse);
+        verify(cardMapper).toResponse(expiredView);
+        verify(cardExpiryService).scheduleWriteBack(cardNumber);
     }
 
     @Test
     void getByNumber_ShouldThrowException_WhenCardDoesNotExist() {
         // given
-        when(cardRepository.findByNumber(cardNumber)).thenReturn(Optional.empty());
+        when(cardCacheService.get(cardNumber)).thenThrow(new CardNotFoundException("Card not found with number: " + cardNumber));
 
         // when & then
         assertThatThrownBy(() -> cardService.getByNumber(cardNumber))
                 .isInstanceOf(CardNotFoundException.class)
                 .hasMessage("Card not found with number: " + cardNumber);
-        verify(cardRepository).findByNumber(cardNumber);
         verify(cardMapper, never()).toResponse(any());
     }
 
@@ -142,7 +259,7 @@ class CardServiceTest {
         // given
         CardCreateRequest request = new CardCreateRequest(cardNumber, expirationDate, userId);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(cardMapper.toEntity(request, user)).thenReturn(card);
+        when(cardMapper.toEntity(request, cardNumber, user)).thenReturn(card);
         when(cardRepository.save(card)).thenReturn(card);
 
         // when
@@ -150,10 +267,40 @@ class CardServiceTest {
 
         // then
         verify(userRepository).findById(userId);
-        verify(cardMapper).toEntity(request, user);
+        verify(cardMapper).toEntity(request, cardNumber, user);
+        verify(cardRepository).save(card);
+        verify(cardNumberService, never()).generate();
+    }
+
+    @Test
+    void create_ShouldGenerateNumber_WhenRequestHasNoNumber() {
+        // given
+        CardCreateRequest request = new CardCreateRequest(null, expirationDate, userId);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(cardNumberService.generate()).thenReturn("4000000000000002");
+        when(cardMapper.toEntity(request, "4000000000000002", user)).thenReturn(card);
+
+        // when
+        cardService.create(request);
+
+        // then
         verify(cardRepository).save(card);
     }
 
+    @Test
+    void create_ShouldThrowException_WhenNumberIsInGeneratedBin() {
+        // given
+        CardCreateRequest request = new CardCreateRequest("4000000000000002", expirationDate, userId);
+        when(cardNumberService.isGenerated("4000000000000002")).thenReturn(true);
+
+        // when & then
+        assertThatThrownBy(() -> cardService.create(request))
+                .isInstanceOf(CardNumberReservedException.class)
+                .hasMessage("Card number is reserved for generated cards: ************0002");
+        verifyNoInteractions(userRepository);
+        verify(cardRepository, never()).save(any());
+    }
+
     @Test
     void create_ShouldThrowException_WhenUserDoesNotExist() {
         // given
@@ -165,7 +312,7 @@ class CardServiceTest {
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("User not found with id: " + userId);
         verify(userRepository).findById(userId);
-        verify(cardMapper, never()).toEntity(any(), any());
+        verify(cardMapper, never()).toEntity(any(), any(), any());
         verify(cardRepository, never()).save(any());
     }
 
@@ -182,6 +329,7 @@ class CardServiceTest {
         assertThat(card.getStatus()).isEqualTo(CardStatusEnum.BLOCKED);
         verify(cardRepository).findByNumber(cardNumber);
         verify(cardRepository).save(card);
+        verify(cardCacheService).evictAfterCommit(List.of(cardNumber));
     }
 
     @Test
@@ -210,6 +358,7 @@ class CardServiceTest {
         assertThat(card.getStatus()).isEqualTo(CardStatusEnum.ACTIVE);
         verify(cardRepository).findByNumber(cardNumber);
         verify(cardRepository).save(card);
+        verify(cardCacheService).evictAfterCommit(List.of(cardNumber));
     }
 
     @Test
@@ -254,6 +403,7 @@ class CardServiceTest {
         // then
         verify(cardRepository).existsByNumber(cardNumber);
         verify(cardRepository).deleteById(cardNumber);
+        verify(cardCacheService).evictAfterCommit(List.of(cardNumber));
     }
 
     @Test
@@ -267,6 +417,7 @@ class CardServiceTest {
                 .hasMessage("Card not found with number: " + cardNumber);
         verify(cardRepository).existsByNumber(cardNumber);
         verify(cardRepository, never()).deleteById(any());
+        verify(cardCacheService, never()).evictAfterCommit(any());
     }
 
     @Test
@@ -310,45 +461,27 @@ class CardServiceTest {
                 .cardNumber(cardNumber)
                 .balance(card.getBalance())
                 .build();
-        when(cardRepository.findByNumber(cardNumber)).thenReturn(Optional.of(card));
-        when(cardMapper.toBalanceResponse(card)).thenReturn(balanceResponse);
+        when(cardCacheService.get(cardNumber)).thenReturn(cardView);
+        when(cardMapper.toBalanceResponse(cardView)).thenReturn(balanceResponse);
 
         // when
         BalanceResponse result = cardService.getBalance(cardNumber);
 
         // then
         assertThat(result).isEqualTo(balanceResponse);
-        verify(cardRepository).findByNumber(cardNumber);
-        verify(cardMapper).toBalanceResponse(card);
+        verify(cardCacheService).get(cardNumber);
+        verify(cardRepository, never()).findByNumber(any());
     }
 
     @Test
     void getBalance_ShouldThrowException_WhenCardDoesNotExist() {
         // given
-        when(cardRepository.findByNumber(cardNumber)).thenReturn(Optional.empty());
+        when(cardCacheService.get(cardNumber)).thenThrow(new CardNotFoundException("Card not found with number: " + cardNumber));
 
         // when & then
         assertThatThrownBy(() -> cardService.getBalance(cardNumber))
                 .isInstanceOf(CardNotFoundException.class)
                 .hasMessage("Card not found with number: " + cardNumber);
-        verify(cardRepository).findByNumber(cardNumber);
         verify(cardMapper, never()).toBalanceResponse(any());
     }
-
-    @Test
-    void updateExpiredCards_ShouldUpdateExpiredCards() {
-        // given
-        YearMonth now = YearMonth.now();
-        List<Card> expiredCards = Collections.singletonList(card);
-        when(cardRepository.findExpiredCards(now)).thenReturn(expiredCards);
-        when(cardRepository.save(card)).thenReturn(card);
-
-        // when
-        cardService.updateExpiredCards();
-
-        // then
-        assertThat(card.getStatus()).isEqualTo(CardStatusEnum.EXPIRED);
-        verify(cardRepository).findExpiredCards(now);
-        verify(cardRepository).save(card);
-    }
 }
\ No newline at end of file
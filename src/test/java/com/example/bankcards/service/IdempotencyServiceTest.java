@@ -0,0 +1,187 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.IdempotencyProperties;
+import com.example.bankcards.exception.custom.IdempotencyKeyConflictException;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.service.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final UUID USER_ID = UUID.fromString("8a1f5d2c-3b6e-4c7a-9e0f-1d2c3b4a5e6f");
+    private static final UUID OTHER_USER_ID = UUID.fromString("b7c6d5e4-f3a2-4b1c-8d9e-0f1a2b3c4d5e");
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyProperties properties;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setCacheSize(2);
+        properties.getPurge().setBatchSize(2);
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, properties);
+    }
+
+    @Test
+    void register_ShouldReturnTrue_WhenKeyIsNew() {
+        // given
+        when(idempotencyKeyRepository.insertIfAbsent(eq(USER_ID), eq("key-1"), any(), any())).thenReturn(1);
+
+        // when
+        boolean result = idempotencyService.register(USER_ID, "key-1", "request");
+
+        // then
+        assertThat(result).isTrue();
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyRepository).insertIfAbsent(eq(USER_ID), eq("key-1"), digest.capture(), any());
+        assertThat(digest.getValue()).hasSize(64);
+    }
+
+    @Test
+    void register_ShouldAnswerFromCache_WhenCommittedKeyIsReplayed() {
+        // given
+        when(idempotencyKeyRepository.insertIfAbsent(eq(USER_ID), eq("key-1"), any(), any())).thenReturn(1);
+        idempotencyService.register(USER_ID, "key-1", "request");
+
+        // when
+        boolean result = idempotencyService.register(USER_ID, "key-1", "request");
+
+        // then
+        assertThat(result).isFalse();
+        verify(idempotencyKeyRepository, times(1)).insertIfAbsent(any(), any(), any(), any());
+        verify(idempotencyKeyRepository, never()).findFingerprint(any(), any());
+    }
+
+    @Test
+    void register_ShouldNotReuseKeyOfAnotherUser_WhenSameKeyIsSent() {
+        // given
+        when(idempotencyKeyRepository.insertIfAbsent(any(), eq("key-1"), any(), any())).thenReturn(1);
+        idempotencyService.register(USER_ID, "key-1", "request");
+
+        // when
+        boolean result = idempotencyService.register(OTHER_USER_ID, "key-1", "another request");
+
+        // then
+        assertThat(result).isTrue();
+        verify(idempotencyKeyRepository).insertIfAbsent(eq(OTHER_USER_ID), eq("key-1"), any(), any());
+    }
+
+    @Test
+    void register_ShouldReturnFalse_WhenStoredKeyMatchesRequest() {
+        // given
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        when(idempotencyKeyRepository.insertIfAbsent(eq(USER_ID), eq("key-1"), digest.capture(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findFingerprint(USER_ID, "key-1"))
+                .thenAnswer(invocation -> Optional.of(digest.getValue()));
+
+        // when
+        boolean result = idempotencyService.register(USER_ID, "key-1", "request");
+
+        // then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void register_ShouldThrowException_WhenStoredKeyBelongsToAnotherRequest() {
+        // given
+        when(idempotencyKeyRepository.insertIfAbsent(eq(USER_ID), eq("key-1"), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findFingerprint(USER_ID, "key-1")).thenReturn(Optional.of("other"));
+
+        // when & then
+        assertThatThrownBy(() -> idempotencyService.register(USER_ID, "key-1", "request"))
+                .isInstanceOf(IdempotencyKeyConflictException.class)
+                .hasMessage("Idempotency key was already used for a different request");
+    }
+
+    @Test
+    void register_ShouldThrowException_WhenCachedKeyIsReusedForAnotherRequest() {
+        // given
+        when(idempotencyKeyRepository.insertIfAbsent(eq(USER_ID), eq("key-1"), any(), any())).thenReturn(1);
+        idempotencyService.register(USER_ID, "key-1", "request");
+
+        // when & then
+        assertThatThrownBy(() -> idempotencyService.register(USER_ID, "key-1", "another request"))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        verify(idempotencyKeyRepository, times(1)).insertIfAbsent(any(), any(), any(), any());
+    }
+
+    @Test
+    void register_ShouldCheckTable_WhenCachedKeyHasExpired() {
+        // given
+        properties.setTtl(Duration.ZERO);
+        when(idempotencyKeyRepository.insertIfAbsent(eq(USER_ID), eq("key-1"), any(), any())).thenReturn(1);
+        idempotencyService.register(USER_ID, "key-1", "request");
+
+        // when
+        boolean result = idempotencyService.register(USER_ID, "key-1", "another request");
+
+        // then
+        assertThat(result).isTrue();
+        verify(idempotencyKeyRepository, times(2)).insertIfAbsent(eq(USER_ID), eq("key-1"), any(), any());
+    }
+
+    @Test
+    void register_ShouldEvictLeastRecentlyUsedKey_WhenCacheIsFull() {
+        // given
+        when(idempotencyKeyRepository.insertIfAbsent(any(), any(), any(), any())).thenReturn(1);
+        idempotencyService.register(USER_ID, "key-1", "request");
+        idempotencyService.register(USER_ID, "key-2", "request");
+        idempotencyService.register(USER_ID, "key-3", "request");
+
+        // when
+        boolean result = idempotencyService.register(USER_ID, "key-1", "request");
+
+        // then
+        assertThat(result).isTrue();
+        verify(idempotencyKeyRepository, times(2)).insertIfAbsent(eq(USER_ID), eq("key-1"), any(), any());
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteInBatchesUntilBatchIsIncomplete() {
+        // given
+        when(idempotencyKeyRepository.deleteCreatedBefore(any(), eq(2))).thenReturn(2, 2, 1);
+
+        // when
+        int purged = idempotencyService.purgeExpired();
+
+        // then
+        assertThat(purged).isEqualTo(5);
+        ArgumentCaptor<LocalDateTime> threshold = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(idempotencyKeyRepository, times(3)).deleteCreatedBefore(threshold.capture(), eq(2));
+        assertThat(threshold.getValue()).isCloseTo(LocalDateTime.now().minus(properties.getTtl()), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void purgeExpired_ShouldContinue_WhenBatchDeletesKeysOfSeveralUsers() {
+        // given
+        when(idempotencyKeyRepository.deleteCreatedBefore(any(), eq(2))).thenReturn(3, 0);
+
+        // when
+        int purged = idempotencyService.purgeExpired();
+
+        // then
+        assertThat(purged).isEqualTo(3);
+        verify(idempotencyKeyRepository, times(2)).deleteCreatedBefore(any(), eq(2));
+    }
+}
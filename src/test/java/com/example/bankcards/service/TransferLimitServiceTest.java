@@ -0,0 +1,187 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferLimitProperties;
+import com.example.bankcards.enums.CardStatusEnum;
+import com.example.bankcards.exception.custom.TransferLimitExceededException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.projection.TransferVolumeView;
+import com.example.bankcards.service.impl.TransferLimitServiceImpl;
+import com.example.bankcards.util.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferLimitServiceTest {
+
+    private static final String FIRST_NUMBER = "1234567890123456";
+    private static final String SECOND_NUMBER = "6543210987654321";
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserve_ShouldRejectTransfer_WhenHourlyLimitIsExceeded() {
+        // given
+        TransferLimitService transferLimitService = limitService(true, "100.00", "1000.00");
+        transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("60.00"));
+        transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("40.00"));
+
+        // when & then
+        assertThatThrownBy(() -> transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("0.01")))
+                .isInstanceOf(TransferLimitExceededException.class)
+                .hasMessage("Hourly transfer limit exceeded for card");
+        assertThatCode(() -> transferLimitService.reserve(SECOND_NUMBER, CardStatusEnum.ACTIVE, Money.parse("100.00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void reserve_ShouldRejectTransfer_WhenDailyLimitIsExceeded() {
+        // given
+        TransferLimitService transferLimitService = limitService(true, null, "50.00");
+
+        // when & then
+        assertThatThrownBy(() -> transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("50.01")))
+                .isInstanceOf(TransferLimitExceededException.class)
+                .hasMessage("Daily transfer limit exceeded for card");
+    }
+
+    @Test
+    void reserve_ShouldNotLimitTransfers_WhenLimitsAreDisabled() {
+        // given
+        TransferLimitService transferLimitService = limitService(false, "1.00", "1.00");
+
+        // when & then
+        assertThatCode(() -> transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("1000.00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void reserve_ShouldNotLimitTransfers_WhenStatusHasNoLimits() {
+        // given
+        TransferLimitService transferLimitService = limitService(true, "1.00", "1.00");
+
+        // when & then
+        assertThatCode(() -> transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.BLOCKED, Money.parse("1000.00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void reserve_ShouldReleaseReservation_WhenTransactionRollsBack() {
+        // given
+        TransferLimitService transferLimitService = limitService(true, "100.00", "100.00");
+        TransactionSynchronizationManager.initSynchronization();
+        transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("100.00"));
+
+        // when
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        assertThatCode(() -> transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("100.00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void rebuild_ShouldRestoreCountersFromLedger() {
+        // given
+        TransferLimitService transferLimitService = limitService(true, "100.00", "1000.00");
+        when(cardRepository.findNumbersAfter("", 2)).thenReturn(List.of(FIRST_NUMBER));
+        when(transferRepository.findOutgoingVolumeSince(eq(List.of(FIRST_NUMBER)), any()))
+                .thenReturn(List.of(volume(FIRST_NUMBER, LocalDateTime.now().minusMinutes(10), "90.00")));
+
+        // when
+        transferLimitService.rebuild();
+
+        // then
+        assertThatThrownBy(() -> transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("20.00")))
+                .isInstanceOf(TransferLimitExceededException.class);
+        assertThatCode(() -> transferLimitService.reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, Money.parse("10.00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void rebuild_ShouldReadLedgerByPagesOfCards() {
+        // given
+        TransferLimitService transferLimitService = limitService(true, "100.00", "1000.00");
+        when(cardRepository.findNumbersAfter("", 2)).thenReturn(List.of(FIRST_NUMBER, SECOND_NUMBER));
+        when(cardRepository.findNumbersAfter(SECOND_NUMBER, 2)).thenReturn(List.of());
+        when(transferRepository.findOutgoingVolumeSince(eq(List.of(FIRST_NUMBER, SECOND_NUMBER)), any()))
+                .thenReturn(List.of(volume(SECOND_NUMBER, LocalDateTime.now().minusMinutes(10), "95.00")));
+
+        // when
+        transferLimitService.rebuild();
+
+        // then
+        assertThatThrownBy(() -> transferLimitService.reserve(SECOND_NUMBER, CardStatusEnum.ACTIVE, Money.parse("10.00")))
+                .isInstanceOf(TransferLimitExceededException.class);
+        verify(transferRepository, times(1)).findOutgoingVolumeSince(any(), any());
+    }
+
+    @Test
+    void rebuild_ShouldSkipLedger_WhenLimitsAreDisabled() {
+        // given
+        TransferLimitService transferLimitService = limitService(false, "100.00", "1000.00");
+
+        // when
+        transferLimitService.rebuild();
+
+        // then
+        verifyNoInteractions(transferRepository, cardRepository);
+    }
+
+    private TransferLimitService limitService(boolean enabled, String hourly, String daily) {
+        TransferLimitProperties.Limit limit = new TransferLimitProperties.Limit();
+        limit.setHourly(hourly == null ? null : new BigDecimal(hourly));
+        limit.setDaily(daily == null ? null : new BigDecimal(daily));
+        TransferLimitProperties properties = new TransferLimitProperties();
+        properties.setEnabled(enabled);
+        properties.setStripes(16);
+        properties.setRebuildBatchSize(2);
+        properties.getStatuses().put(CardStatusEnum.ACTIVE, limit);
+        return new TransferLimitServiceImpl(transferRepository, cardRepository, properties);
+    }
+
+    private static TransferVolumeView volume(String cardFrom, LocalDateTime minute, String amount) {
+        return new TransferVolumeView() {
+            @Override
+            public String getCardFrom() {
+                return cardFrom;
+            }
+
+            @Override
+            public LocalDateTime getMinute() {
+                return minute;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
@@ -1,21 +1,41 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.KeysetPage;
+import com.example.bankcards.dto.response.TransferResponse;
+import com.example.bankcards.dto.response.TransferResultResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.enums.CardStatusEnum;
 import com.example.bankcards.exception.custom.CardNotFoundException;
+import com.example.bankcards.exception.custom.InvalidCursorException;
 import com.example.bankcards.exception.custom.TransferException;
+import com.example.bankcards.exception.custom.TransferLimitExceededException;
+import com.example.bankcards.mapper.TransferMapper;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.service.IdempotencyService;
 import com.example.bankcards.service.impl.TransferServiceImpl;
+import com.example.bankcards.util.CursorUtil;
+import com.example.bankcards.util.Money;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.math.BigDecimal;
-import java.util.Optional;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,41 +45,94 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class TransferServiceTest {
 
+    private static final String FIRST_NUMBER = "1234567890123456";
+    private static final String SECOND_NUMBER = "6543210987654321";
+    private static final String THIRD_NUMBER = "9999888877776666";
+    private static final YearMonth EXPIRATION_DATE = YearMonth.now().plusYears(1);
+    private static final UUID OWNER_ID = UUID.fromString("3f2b8c1e-7d4a-4e9b-9c61-5a0d2e8f4b17");
+
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Spy
+    private TransferMapper transferMapper = new TransferMapper();
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private TransferLimitService transferLimitService;
+
+    @Mock
+    private CardCacheService cardCacheService;
+
+    @Mock
+    private CardExpiryService cardExpiryService;
+
     @InjectMocks
     private TransferServiceImpl transferService;
 
     @Test
-    void transfer_ShouldTransferAmount_WhenConditionsAreMet() {
+    void transfer_ShouldDebitAndCreditWithoutLoadingCards_WhenConditionsAreMet() {
         // given
-        User user = User.builder().userId(UUID.randomUUID()).build();
-        Card fromCard = Card.builder()
-                .number("1234567890123456")
-                .status(CardStatusEnum.ACTIVE)
-                .balance(BigDecimal.valueOf(200.00))
-                .owner(user)
-                .build();
-        Card toCard = Card.builder()
-                .number("6543210987654321")
-                .status(CardStatusEnum.ACTIVE)
-                .balance(BigDecimal.valueOf(100.00))
-                .owner(user)
-                .build();
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(50.00));
+        Money amount = Money.parse("50.00");
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, amount);
 
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByNumber("6543210987654321")).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(amount), any())).thenReturn(1);
+        when(cardRepository.credit(eq(SECOND_NUMBER), eq(FIRST_NUMBER), eq(amount), any())).thenReturn(1);
 
         // when
         transferService.transfer(request);
 
         // then
-        assertThat(fromCard.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(150.00));
-        assertThat(toCard.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(150.00));
-        verify(cardRepository).save(fromCard);
-        verify(cardRepository).save(toCard);
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(amount), any());
+        inOrder.verify(cardRepository).credit(eq(SECOND_NUMBER), eq(FIRST_NUMBER), eq(amount), any());
+        verify(cardRepository, never()).findViewsByNumberIn(any());
+        verify(cardRepository, never()).save(any());
+
+        ArgumentCaptor<Transfer> ledgerEntry = ArgumentCaptor.forClass(Transfer.class);
+        verify(transferRepository).save(ledgerEntry.capture());
+        assertThat(ledgerEntry.getValue().getCardFrom()).isEqualTo(FIRST_NUMBER);
+        assertThat(ledgerEntry.getValue().getCardTo()).isEqualTo(SECOND_NUMBER);
+        assertThat(ledgerEntry.getValue().getAmount()).isEqualByComparingTo(amount);
+        assertThat(ledgerEntry.getValue().getCreatedAt()).isNotNull();
+        verify(cardCacheService).evictAfterCommit(List.of(FIRST_NUMBER, SECOND_NUMBER));
+    }
+
+    @Test
+    void transfer_ShouldNotTouchBalances_WhenTransferLimitIsExceeded() {
+        // given
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
+        doThrow(new TransferLimitExceededException("Daily transfer limit exceeded for card"))
+                .when(transferLimitService).reserve(FIRST_NUMBER, CardStatusEnum.ACTIVE, request.amount());
+
+        // when & then
+        assertThatThrownBy(() -> transferService.transfer(request))
+                .isInstanceOf(TransferLimitExceededException.class)
+                .hasMessage("Daily transfer limit exceeded for card");
+        verifyNoInteractions(cardRepository, transferRepository, cardCacheService);
+    }
+
+    @Test
+    void transfer_ShouldCreditFirst_WhenDestinationNumberIsLower() {
+        // given
+        Money amount = Money.parse("50.00");
+        TransferRequest request = new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, amount);
+
+        when(cardRepository.credit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(amount), any())).thenReturn(1);
+        when(cardRepository.debit(eq(SECOND_NUMBER), eq(FIRST_NUMBER), eq(amount), any())).thenReturn(1);
+
+        // when
+        transferService.transfer(request);
+
+        // then
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).credit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(amount), any());
+        inOrder.verify(cardRepository).debit(eq(SECOND_NUMBER), eq(FIRST_NUMBER), eq(amount), any());
     }
 
     @Test
@@ -67,157 +140,427 @@ class TransferServiceTest {
         // given
         User user1 = User.builder().userId(UUID.randomUUID()).build();
         User user2 = User.builder().userId(UUID.randomUUID()).build();
-        Card fromCard = Card.builder().number("1234567890123456").owner(user1).status(CardStatusEnum.ACTIVE).balance(BigDecimal.valueOf(200.00)).build();
-        Card toCard = Card.builder().number("6543210987654321").owner(user2).status(CardStatusEnum.ACTIVE).build();
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(50.00));
+        Card fromCard = Card.builder().number(FIRST_NUMBER).owner(user1).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.parse("200.00")).build();
+        Card toCard = Card.builder().number(SECOND_NUMBER).owner(user2).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).build();
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
 
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByNumber("6543210987654321")).thenReturn(Optional.of(toCard));
+        givenDebitRejected(request, fromCard, toCard);
 
         // when & then
         assertThatThrownBy(() -> transferService.transfer(request))
                 .isInstanceOf(TransferException.class)
                 .hasMessage("Cards must belong to the same user");
-        verify(cardRepository, never()).save(any());
+        verify(cardRepository, never()).credit(any(), any(), any(), any());
     }
 
     @Test
     void transfer_ShouldThrowException_WhenSourceCardIsNotActive() {
         // given
         User user = User.builder().userId(UUID.randomUUID()).build();
-        Card fromCard = Card.builder().number("1234567890123456").status(CardStatusEnum.BLOCKED).owner(user).build();
-        Card toCard = Card.builder().number("6543210987654321").status(CardStatusEnum.ACTIVE).owner(user).build();
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(50.00));
+        Card fromCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.BLOCKED).expirationDate(EXPIRATION_DATE).owner(user).build();
+        Card toCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).owner(user).build();
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
 
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByNumber("6543210987654321")).thenReturn(Optional.of(toCard));
+        givenDebitRejected(request, fromCard, toCard);
 
         // when & then
         assertThatThrownBy(() -> transferService.transfer(request))
                 .isInstanceOf(TransferException.class)
                 .hasMessage("Source card is not active. Status: BLOCKED");
-        verify(cardRepository, never()).save(any());
+        verify(cardRepository, never()).credit(any(), any(), any(), any());
+    }
+
+    @Test
+    void transfer_ShouldThrowException_WhenSourceCardHasExpiredButIsNotMarkedYet() {
+        // given
+        User user = User.builder().userId(UUID.randomUUID()).build();
+        Card fromCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(YearMonth.now().minusMonths(1)).owner(user).balance(Money.parse("200.00")).build();
+        Card toCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).owner(user).build();
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
+
+        givenDebitRejected(request, fromCard, toCard);
+
+        // when & then
+        assertThatThrownBy(() -> transferService.transfer(request))
+                .isInstanceOf(TransferException.class)
+                .hasMessage("Source card is not active. Status: EXPIRED");
+        verify(cardRepository).debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(request.amount()), eq(YearMonth.now()));
+        verify(cardExpiryService).scheduleWriteBack(FIRST_NUMBER);
+        verify(cardExpiryService, never()).scheduleWriteBack(SECOND_NUMBER);
     }
 
     @Test
     void transfer_ShouldThrowException_WhenDestinationCardIsNotActive() {
         // given
         User user = User.builder().userId(UUID.randomUUID()).build();
-        Card fromCard = Card.builder().number("1234567890123456").status(CardStatusEnum.ACTIVE).owner(user).balance(BigDecimal.valueOf(200.00)).build();
-        Card toCard = Card.builder().number("6543210987654321").status(CardStatusEnum.BLOCKED).owner(user).build();
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(50.00));
+        Card fromCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).owner(user).balance(Money.parse("200.00")).build();
+        Card toCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.BLOCKED).expirationDate(EXPIRATION_DATE).owner(user).build();
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
 
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByNumber("6543210987654321")).thenReturn(Optional.of(toCard));
+        when(cardRepository.debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(request.amount()), any())).thenReturn(1);
+        when(cardRepository.credit(eq(SECOND_NUMBER), eq(FIRST_NUMBER), eq(request.amount()), any())).thenReturn(0);
+        givenCardViews(fromCard, toCard);
 
         // when & then
         assertThatThrownBy(() -> transferService.transfer(request))
                 .isInstanceOf(TransferException.class)
                 .hasMessage("Destination card is not active. Status: BLOCKED");
-        verify(cardRepository, never()).save(any());
     }
 
     @Test
     void transfer_ShouldThrowException_WhenInsufficientFunds() {
         // given
         User user = User.builder().userId(UUID.randomUUID()).build();
-        Card fromCard = Card.builder().number("1234567890123456").status(CardStatusEnum.ACTIVE).balance(BigDecimal.valueOf(50.00)).owner(user).build();
-        Card toCard = Card.builder().number("6543210987654321").status(CardStatusEnum.ACTIVE).balance(BigDecimal.valueOf(100.00)).owner(user).build();
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(100.00));
+        Card fromCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.parse("50.00")).owner(user).build();
+        Card toCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.parse("100.00")).owner(user).build();
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("100.00"));
 
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByNumber("6543210987654321")).thenReturn(Optional.of(toCard));
+        givenDebitRejected(request, fromCard, toCard);
 
         // when & then
         assertThatThrownBy(() -> transferService.transfer(request))
                 .isInstanceOf(TransferException.class)
                 .hasMessage("Insufficient funds on source card");
-        verify(cardRepository, never()).save(any());
+        verify(cardRepository, never()).credit(any(), any(), any(), any());
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    void transfer_ShouldThrowConflict_WhenCardStateChangedConcurrently() {
+        // given
+        User user = User.builder().userId(UUID.randomUUID()).build();
+        Card fromCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.parse("200.00")).owner(user).build();
+        Card toCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.ZERO).owner(user).build();
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
+
+        givenDebitRejected(request, fromCard, toCard);
+
+        // when & then
+        assertThatThrownBy(() -> transferService.transfer(request))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessage("Card state changed during transfer, please retry");
+        verify(transferRepository, never()).save(any());
     }
 
     @Test
     void transfer_ShouldThrowException_WhenSourceCardNotFound() {
         // given
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(50.00));
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.empty());
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
+        when(cardRepository.debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(request.amount()), any())).thenReturn(0);
+        givenCardViews();
 
         // when & then
         assertThatThrownBy(() -> transferService.transfer(request))
                 .isInstanceOf(CardNotFoundException.class)
-                .hasMessage("Source card not found: 1234567890123456");
-        verify(cardRepository, never()).save(any());
+                .hasMessage("Source card not found: " + FIRST_NUMBER);
+        verify(cardRepository, never()).credit(any(), any(), any(), any());
     }
 
     @Test
     void transfer_ShouldThrowException_WhenDestinationCardNotFound() {
         // given
         User user = User.builder().userId(UUID.randomUUID()).build();
-        Card fromCard = Card.builder().number("1234567890123456").status(CardStatusEnum.ACTIVE).balance(BigDecimal.valueOf(200.00)).owner(user).build();
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(50.00));
+        Card fromCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.parse("200.00")).owner(user).build();
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
 
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByNumber("6543210987654321")).thenReturn(Optional.empty());
+        when(cardRepository.debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(request.amount()), any())).thenReturn(0);
+        givenCardViews(fromCard);
 
         // when & then
         assertThatThrownBy(() -> transferService.transfer(request))
                 .isInstanceOf(CardNotFoundException.class)
-                .hasMessage("Destination card not found: 6543210987654321");
-        verify(cardRepository, never()).save(any());
+                .hasMessage("Destination card not found: " + SECOND_NUMBER);
+        verify(cardRepository, never()).credit(any(), any(), any(), any());
     }
 
     @Test
     void transfer_ShouldThrowException_WhenAmountIsZero() {
         // given
-        User user = User.builder().userId(UUID.randomUUID()).build();
-        Card fromCard = Card.builder()
-                .number("1234567890123456")
-                .status(CardStatusEnum.ACTIVE)
-                .balance(BigDecimal.valueOf(200.00))
-                .owner(user)
-                .build();
-        Card toCard = Card.builder()
-                .number("6543210987654321")
-                .status(CardStatusEnum.ACTIVE)
-                .balance(BigDecimal.valueOf(100.00))
-                .owner(user)
-                .build();
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.ZERO);
-
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByNumber("6543210987654321")).thenReturn(Optional.of(toCard));
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.ZERO);
 
         // when & then
         assertThatThrownBy(() -> transferService.transfer(request))
                 .isInstanceOf(TransferException.class)
                 .hasMessage("Transfer amount must be positive");
-        verify(cardRepository, never()).save(any());
+        verifyNoInteractions(cardRepository, transferRepository);
     }
 
     @Test
     void transfer_ShouldThrowException_WhenAmountIsNegative() {
         // given
-        User user = User.builder().userId(UUID.randomUUID()).build();
-        Card fromCard = Card.builder()
-                .number("1234567890123456")
-                .status(CardStatusEnum.ACTIVE)
-                .balance(BigDecimal.valueOf(200.00))
-                .owner(user)
-                .build();
-        Card toCard = Card.builder()
-                .number("6543210987654321")
-                .status(CardStatusEnum.ACTIVE)
-                .balance(BigDecimal.valueOf(100.00))
-                .owner(user)
-                .build();
-        TransferRequest request = new TransferRequest("1234567890123456", "6543210987654321", BigDecimal.valueOf(-50.00));
-
-        when(cardRepository.findByNumber("1234567890123456")).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByNumber("6543210987654321")).thenReturn(Optional.of(toCard));
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("-50.00"));
 
         // when & then
         assertThatThrownBy(() -> transferService.transfer(request))
                 .isInstanceOf(TransferException.class)
                 .hasMessage("Transfer amount must be positive");
-        verify(cardRepository, never()).save(any());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void transfer_ShouldExecuteTransfer_WhenIdempotencyKeyIsNew() {
+        // given
+        Money amount = Money.parse("50.00");
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, amount);
+
+        when(idempotencyService.register(OWNER_ID, "key-1", FIRST_NUMBER + ":" + SECOND_NUMBER + ":5000")).thenReturn(true);
+        when(cardRepository.debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(amount), any())).thenReturn(1);
+        when(cardRepository.credit(eq(SECOND_NUMBER), eq(FIRST_NUMBER), eq(amount), any())).thenReturn(1);
+
+        // when
+        transferService.transfer(request, OWNER_ID, "key-1");
+
+        // then
+        InOrder inOrder = inOrder(idempotencyService, cardRepository);
+        inOrder.verify(idempotencyService).register(eq(OWNER_ID), eq("key-1"), any());
+        inOrder.verify(cardRepository).debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(amount), any());
+        inOrder.verify(cardRepository).credit(eq(SECOND_NUMBER), eq(FIRST_NUMBER), eq(amount), any());
+    }
+
+    @Test
+    void transfer_ShouldSkipTransfer_WhenIdempotencyKeyIsReplayed() {
+        // given
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("50.00"));
+
+        when(idempotencyService.register(eq(OWNER_ID), eq("key-1"), any())).thenReturn(false);
+
+        // when
+        transferService.transfer(request, OWNER_ID, "key-1");
+
+        // then
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void transfer_ShouldNotRegisterKey_WhenIdempotencyKeyIsAbsent() {
+        // given
+        Money amount = Money.parse("50.00");
+        TransferRequest request = new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, amount);
+
+        when(cardRepository.debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(amount), any())).thenReturn(1);
+        when(cardRepository.credit(eq(SECOND_NUMBER), eq(FIRST_NUMBER), eq(amount), any())).thenReturn(1);
+
+        // when
+        transferService.transfer(request, OWNER_ID, null);
+
+        // then
+        verifyNoInteractions(idempotencyService);
+        verify(cardRepository).debit(eq(FIRST_NUMBER), eq(SECOND_NUMBER), eq(amount), any());
+    }
+
+    @Test
+    void transferBatch_ShouldApplyNetBalancesAndReportEachTransfer() {
+        // given
+        User user = User.builder().userId(UUID.randomUUID()).build();
+        Card firstCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.parse("100.00")).owner(user).build();
+        Card secondCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.ZERO).owner(user).build();
+        List<TransferRequest> requests = List.of(
+                new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("30.00")),
+                new TransferRequest(SECOND_NUMBER, FIRST_NUMBER, Money.parse("10.00")),
+                new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("500.00")),
+                new TransferRequest(FIRST_NUMBER, THIRD_NUMBER, Money.parse("5.00"))
+        );
+
+        when(cardRepository.findAllByNumberForUpdate(new TreeSet<>(Set.of(FIRST_NUMBER, SECOND_NUMBER, THIRD_NUMBER))))
+                .thenReturn(List.of(firstCard, secondCard));
+
+        // when
+        List<TransferResultResponse> results = transferService.transferBatch(requests);
+
+        // then
+        assertThat(results).extracting(TransferResultResponse::index).containsExactly(0, 1, 2, 3);
+        assertThat(results).extracting(TransferResultResponse::status)
+                .containsExactly("COMPLETED", "COMPLETED", "FAILED", "FAILED");
+        assertThat(results.get(2).message()).isEqualTo("Insufficient funds on source card");
+        assertThat(results.get(3).message()).isEqualTo("Destination card not found: " + THIRD_NUMBER);
+        assertThat(firstCard.getBalance()).isEqualByComparingTo(Money.parse("80.00"));
+        assertThat(secondCard.getBalance()).isEqualByComparingTo(Money.parse("20.00"));
+        verify(cardRepository).findAllByNumberForUpdate(any());
+        verify(cardRepository).saveAll(Set.of(firstCard, secondCard));
+        verify(cardRepository, never()).debit(any(), any(), any(), any());
+        verify(cardCacheService).evictAfterCommit(List.of(FIRST_NUMBER, SECOND_NUMBER));
+
+        ArgumentCaptor<List<Transfer>> ledger = ArgumentCaptor.captor();
+        verify(transferRepository).saveAll(ledger.capture());
+        assertThat(ledger.getValue()).extracting(Transfer::getCardFrom).containsExactly(FIRST_NUMBER, SECOND_NUMBER);
+    }
+
+    @Test
+    void transferBatch_ShouldNotWriteCards_WhenEveryTransferIsRejected() {
+        // given
+        User user = User.builder().userId(UUID.randomUUID()).build();
+        Card firstCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.BLOCKED).expirationDate(EXPIRATION_DATE).balance(Money.parse("100.00")).owner(user).build();
+        Card secondCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.ZERO).owner(user).build();
+        List<TransferRequest> requests = List.of(new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("30.00")));
+
+        when(cardRepository.findAllByNumberForUpdate(any())).thenReturn(List.of(firstCard, secondCard));
+
+        // when
+        List<TransferResultResponse> results = transferService.transferBatch(requests);
+
+        // then
+        assertThat(results).singleElement()
+                .extracting(TransferResultResponse::message)
+                .isEqualTo("Source card is not active. Status: BLOCKED");
+        assertThat(firstCard.getBalance()).isEqualByComparingTo(Money.parse("100.00"));
+        verify(cardRepository).saveAll(Set.of());
+    }
+
+    @Test
+    void transferBatch_ShouldRejectTransfer_WhenDestinationCardHasExpiredButIsNotMarkedYet() {
+        // given
+        User user = User.builder().userId(UUID.randomUUID()).build();
+        Card firstCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.parse("100.00")).owner(user).build();
+        Card secondCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(YearMonth.now().minusMonths(1)).balance(Money.ZERO).owner(user).build();
+        List<TransferRequest> requests = List.of(new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("30.00")));
+
+        when(cardRepository.findAllByNumberForUpdate(any())).thenReturn(List.of(firstCard, secondCard));
+
+        // when
+        List<TransferResultResponse> results = transferService.transferBatch(requests);
+
+        // then
+        assertThat(results).singleElement()
+                .extracting(TransferResultResponse::message)
+                .isEqualTo("Destination card is not active. Status: EXPIRED");
+        assertThat(secondCard.getStatus()).isEqualTo(CardStatusEnum.ACTIVE);
+        verify(cardExpiryService).scheduleWriteBack(SECOND_NUMBER);
+        verify(cardRepository).saveAll(Set.of());
+    }
+
+    @Test
+    void transferBatch_ShouldFailOnlyTransfersOverLimit() {
+        // given
+        User user = User.builder().userId(UUID.randomUUID()).build();
+        Card firstCard = Card.builder().number(FIRST_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.parse("100.00")).owner(user).build();
+        Card secondCard = Card.builder().number(SECOND_NUMBER).status(CardStatusEnum.ACTIVE).expirationDate(EXPIRATION_DATE).balance(Money.ZERO).owner(user).build();
+        List<TransferRequest> requests = List.of(
+                new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("30.00")),
+                new TransferRequest(FIRST_NUMBER, SECOND_NUMBER, Money.parse("40.00"))
+        );
+
+        when(cardRepository.findAllByNumberForUpdate(any())).thenReturn(List.of(firstCard, secondCard));
+        doNothing().doThrow(new TransferLimitExceededException("Hourly transfer limit exceeded for card"))
+                .when(transferLimitService).reserve(eq(FIRST_NUMBER), eq(CardStatusEnum.ACTIVE), any());
+
+        // when
+        List<TransferResultResponse> results = transferService.transferBatch(requests);
+
+        // then
+        assertThat(results).extracting(TransferResultResponse::status).containsExactly("COMPLETED", "FAILED");
+        assertThat(results.get(1).message()).isEqualTo("Hourly transfer limit exceeded for card");
+        assertThat(firstCard.getBalance()).isEqualByComparingTo(Money.parse("70.00"));
+        assertThat(secondCard.getBalance()).isEqualByComparingTo(Money.parse("30.00"));
+    }
+
+    @Test
+    void getHistory_ShouldReturnFirstPageWithCursorOfLastItem_WhenMoreTransfersExist() {
+        // given
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        List<Transfer> transfers = List.of(
+                ledgerEntry(3L, now),
+                ledgerEntry(2L, now.minusMinutes(1)),
+                ledgerEntry(1L, now.minusMinutes(2))
+        );
+        when(cardRepository.existsByNumber(FIRST_NUMBER)).thenReturn(true);
+        when(transferRepository.findFirstPageByCard(FIRST_NUMBER, 3)).thenReturn(transfers);
+
+        // when
+        KeysetPage<TransferResponse> history = transferService.getHistory(FIRST_NUMBER, null, 2);
+
+        // then
+        assertThat(history.items()).extracting("id").containsExactly(3L, 2L);
+        assertThat(history.items().get(0).numberFrom()).isEqualTo("************3456");
+        assertThat(CursorUtil.decode(history.nextCursor()))
+                .isEqualTo(new CursorUtil.Position(now.minusMinutes(1), 2L));
+    }
+
+    @Test
+    void getHistory_ShouldSeekAfterCursorAndOmitNextCursor_WhenLastPage() {
+        // given
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        String cursor = CursorUtil.encode(now, 3L);
+        when(cardRepository.existsByNumber(FIRST_NUMBER)).thenReturn(true);
+        when(transferRepository.findPageByCardAfter(FIRST_NUMBER, now, 3L, 3))
+                .thenReturn(List.of(ledgerEntry(2L, now.minusMinutes(1))));
+
+        // when
+        KeysetPage<TransferResponse> history = transferService.getHistory(FIRST_NUMBER, cursor, 2);
+
+        // then
+        assertThat(history.items()).extracting("id").containsExactly(2L);
+        assertThat(history.nextCursor()).isNull();
+        verify(transferRepository, never()).findFirstPageByCard(any(), anyInt());
+    }
+
+    @Test
+    void getHistory_ShouldThrowException_WhenCursorIsInvalid() {
+        // given
+        when(cardRepository.existsByNumber(FIRST_NUMBER)).thenReturn(true);
+
+        // when & then
+        assertThatThrownBy(() -> transferService.getHistory(FIRST_NUMBER, "not a cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(transferRepository);
+    }
+
+    @Test
+    void getHistory_ShouldThrowException_WhenCardNotFound() {
+        // given
+        when(cardRepository.existsByNumber(FIRST_NUMBER)).thenReturn(false);
+
+        // when & then
+        assertThatThrownBy(() -> transferService.getHistory(FIRST_NUMBER, null, 10))
+                .isInstanceOf(CardNotFoundException.class)
+                .hasMessage("Card not found with number: " + FIRST_NUMBER);
+    }
+
+    @Test
+    void getHistoryByOwner_ShouldReturnPage_WhenCardBelongsToOwner() {
+        // given
+        UUID ownerId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        when(cardRepository.existsByNumberAndOwnerUserId(FIRST_NUMBER, ownerId)).thenReturn(true);
+        when(transferRepository.findFirstPageByCard(FIRST_NUMBER, 11)).thenReturn(List.of(ledgerEntry(1L, now)));
+
+        // when
+        KeysetPage<TransferResponse> history = transferService.getHistoryByOwner(ownerId, FIRST_NUMBER, "", 10);
+
+        // then
+        assertThat(history.items()).extracting("id").containsExactly(1L);
+        assertThat(history.nextCursor()).isNull();
+    }
+
+    @Test
+    void getHistoryByOwner_ShouldThrowException_WhenCardBelongsToAnotherUser() {
+        // given
+        UUID ownerId = UUID.randomUUID();
+        when(cardRepository.existsByNumberAndOwnerUserId(FIRST_NUMBER, ownerId)).thenReturn(false);
+
+        // when & then
+        assertThatThrownBy(() -> transferService.getHistoryByOwner(ownerId, FIRST_NUMBER, null, 10))
+                .isInstanceOf(CardNotFoundException.class)
+                .hasMessage("Card not found with number: " + FIRST_NUMBER);
+        verifyNoInteractions(transferRepository);
+    }
+
+    private Transfer ledgerEntry(Long id, LocalDateTime createdAt) {
+        return Transfer.builder()
+                .id(id)
+                .cardFrom(FIRST_NUMBER)
+                .cardTo(SECOND_NUMBER)
+                .amount(Money.parse("10"))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private void givenDebitRejected(TransferRequest request, Card fromCard, Card toCard) {
+        when(cardRepository.debit(eq(request.numberFrom()), eq(request.numberTo()), eq(request.amount()), any())).thenReturn(0);
+        givenCardViews(fromCard, toCard);
+    }
+
+    private void givenCardViews(Card... cards) {
+        List<CardView> views = Arrays.stream(cards).map(transferMapper::toCardView).toList();
+        when(cardRepository.findViewsByNumberIn(List.of(FIRST_NUMBER, SECOND_NUMBER))).thenReturn(views);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.UserCreateRequest;
 import com.example.bankcards.dto.request.UserPasswordUpdateRequest;
+import com.example.bankcards.dto.response.KeysetPage;
 import com.example.bankcards.dto.response.UserResponse;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
@@ -13,6 +14,7 @@ import com.example.bankcards.mapper.UserMapper;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.impl.UserServiceImpl;
+import com.example.bankcards.util.CursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +24,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -46,6 +50,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CardCacheService cardCacheService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -94,6 +101,23 @@ class UserServiceTest {
         verify(userMapper).toResponse(user);
     }
 
+    @Test
+    void getAllAfter_ShouldReturnLastPageWithoutCursor() {
+        // given
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Slice<User> userSlice = new SliceImpl<>(List.of(user), pageRequest, false);
+        when(userRepository.findByLoginGreaterThanOrderByLogin("admin", pageRequest)).thenReturn(userSlice);
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        // when
+        KeysetPage<UserResponse> result = userService.getAllAfter(CursorUtil.encodeKey("admin"), 10);
+
+        // then
+        assertThat(result.items()).containsExactly(userResponse);
+        assertThat(result.nextCursor()).isNull();
+        verify(userRepository, never()).findAll(any(PageRequest.class));
+    }
+
     @Test
     void getById_ShouldReturnUser_WhenUserExists() {
         // given
@@ -273,6 +297,7 @@ class UserServiceTest {
         // then
         verify(userRepository).existsById(userId);
         verify(userRepository).deleteById(userId);
+        verify(cardCacheService).evictOwnerAfterCommit(userId);
     }
 
     @Test